@@ -0,0 +1,39 @@
+package tech.hiddenproject.hic.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs benchmarks with JMH command line options. {@link GCProfiler} is always added to report
+ * allocation rate, and results are written to {@code jmh-result.json} unless other file is set
+ * with {@code -rff}.
+ *
+ * @author Danila Rassokhin
+ */
+public class BenchmarkRunner {
+
+  public static void main(String... args) throws Exception {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+    if (commandLine.shouldHelp()) {
+      commandLine.showHelp();
+      return;
+    }
+    Runner runner = new Runner(commandLine);
+    if (commandLine.shouldList()) {
+      runner.list();
+      return;
+    }
+    Options options = new OptionsBuilder()
+        .parent(commandLine)
+        .addProfiler(GCProfiler.class)
+        .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+        .result(commandLine.getResult().orElse("jmh-result.json"))
+        .build();
+    new Runner(options).run();
+  }
+
+}
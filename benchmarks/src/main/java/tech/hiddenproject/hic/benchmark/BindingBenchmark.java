@@ -0,0 +1,76 @@
+package tech.hiddenproject.hic.benchmark;
+
+import java.lang.reflect.Method;
+import java.net.http.HttpRequest;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.hiddenproject.hic.MethodPlan;
+import tech.hiddenproject.hic.RequestCreator;
+import tech.hiddenproject.hic.RequestParameters;
+import tech.hiddenproject.hic.example.Book;
+import tech.hiddenproject.hic.example.BookClient;
+
+/**
+ * Measures work done for each call before request is sent: annotation processing, which is done
+ * once per method, parameter binding, url expansion and {@link HttpRequest} creation.
+ *
+ * @author Danila Rassokhin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class BindingBenchmark {
+
+  private static final String BASE_URL = "http://127.0.0.1:8080/api/v1";
+
+  private Method updateBook;
+
+  private MethodPlan plan;
+
+  private Object[] args;
+
+  private RequestParameters parameters;
+
+  @Setup
+  public void setup() throws NoSuchMethodException {
+    updateBook = BookClient.class.getMethod("updateBook", Integer.class, Book.class);
+    plan = MethodPlan.of(updateBook);
+    args = new Object[]{42, new Book(42L, "Book number 42")};
+    parameters = plan.bind(args);
+  }
+
+  @Benchmark
+  public MethodPlan annotationProcessing() {
+    return MethodPlan.of(updateBook);
+  }
+
+  @Benchmark
+  public RequestParameters bind() {
+    return plan.bind(args);
+  }
+
+  @Benchmark
+  public String expandUrl() {
+    return plan.getUriTemplate().expand(BASE_URL, parameters.getPath(), parameters.getQuery());
+  }
+
+  @Benchmark
+  public HttpRequest bindAndCreateRequest() {
+    return RequestCreator.create(BASE_URL, plan.getUriTemplate(), plan.getRequestMethod(),
+                                 plan.getContentType(), plan.bind(args), null
+    );
+  }
+
+}
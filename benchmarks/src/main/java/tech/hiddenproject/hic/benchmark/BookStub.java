@@ -0,0 +1,131 @@
+package tech.hiddenproject.hic.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import tech.hiddenproject.hic.encoder.impl.JSONBodyEncoder;
+import tech.hiddenproject.hic.example.Book;
+
+/**
+ * In-process server with book resources. Responses are encoded once, so server adds constant
+ * cost to each request. Run JVM with {@code -Dsun.net.httpserver.nodelay=true}, otherwise Nagle's
+ * algorithm delays responses. Optional latency is added without holding server thread, so many
+ * concurrent requests can wait for response without stub threads growing with them.
+ *
+ * @author Danila Rassokhin
+ */
+public class BookStub implements Closeable {
+
+  private static final int BACKLOG = 16 * 1024;
+
+  private final HttpServer server;
+
+  private final ExecutorService executor;
+
+  private final ScheduledExecutorService delayer;
+
+  private final long latencyNanos;
+
+  private final byte[] book;
+
+  private final byte[] books;
+
+  /**
+   * Starts server on random port.
+   *
+   * @param listSize Count of books returned by {@code GET /book}
+   * @throws IOException if server can't be started
+   */
+  public BookStub(int listSize) throws IOException {
+    this(listSize, Duration.ZERO);
+  }
+
+  /**
+   * Starts server on random port.
+   *
+   * @param listSize Count of books returned by {@code GET /book}
+   * @param latency  Time to wait before each response is sent
+   * @throws IOException if server can't be started
+   */
+  public BookStub(int listSize, Duration latency) throws IOException {
+    this.latencyNanos = latency.toNanos();
+    JSONBodyEncoder encoder = new JSONBodyEncoder();
+    this.book = encoder.encode(new Book(1L, "Book number 1")).getBytes(StandardCharsets.UTF_8);
+    this.books = encoder.encode(Books.list(listSize)).getBytes(StandardCharsets.UTF_8);
+    this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                                    BACKLOG);
+    this.executor = Executors.newCachedThreadPool(runnable -> {
+      Thread thread = new Thread(runnable, "book-stub");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.delayer = Executors.newScheduledThreadPool(2, runnable -> {
+      Thread thread = new Thread(runnable, "book-stub-delay");
+      thread.setDaemon(true);
+      return thread;
+    });
+    server.setExecutor(executor);
+    server.createContext("/book", this::handle);
+    server.start();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    byte[] response;
+    try (InputStream request = exchange.getRequestBody()) {
+      byte[] body = request.readAllBytes();
+      if ("POST".equals(exchange.getRequestMethod())) {
+        response = body;
+      } else if (exchange.getRequestURI().getPath().equals("/book")) {
+        response = books;
+      } else {
+        response = book;
+      }
+    }
+    if (latencyNanos == 0) {
+      respond(exchange, response);
+      return;
+    }
+    delayer.schedule(() -> {
+      try {
+        respond(exchange, response);
+      } catch (IOException e) {
+        // Client is gone, nothing to respond to
+      }
+    }, latencyNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private void respond(HttpExchange exchange, byte[] response) throws IOException {
+    try (exchange) {
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, response.length);
+      try (OutputStream output = exchange.getResponseBody()) {
+        output.write(response);
+      }
+    }
+  }
+
+  /**
+   * @return Base url of server
+   */
+  public String getUrl() {
+    return "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+    delayer.shutdownNow();
+  }
+}
@@ -0,0 +1,26 @@
+package tech.hiddenproject.hic.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import tech.hiddenproject.hic.example.Book;
+
+/**
+ * Test data for benchmarks.
+ *
+ * @author Danila Rassokhin
+ */
+public class Books {
+
+  /**
+   * @param size Count of books
+   * @return List of books with sequential ids
+   */
+  public static List<Book> list(int size) {
+    List<Book> books = new ArrayList<>(size);
+    for (long i = 0; i < size; i++) {
+      books.add(new Book(i, "Book number " + i));
+    }
+    return books;
+  }
+
+}
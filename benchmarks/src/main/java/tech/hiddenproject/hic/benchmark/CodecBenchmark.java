@@ -0,0 +1,86 @@
+package tech.hiddenproject.hic.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tech.hiddenproject.hic.decoder.impl.JSONBodyDecoder;
+import tech.hiddenproject.hic.encoder.impl.JSONBodyEncoder;
+import tech.hiddenproject.hic.example.Book;
+import tech.hiddenproject.hic.util.Types;
+
+/**
+ * Measures default JSON codecs on lists of {@link Book}.
+ *
+ * @author Danila Rassokhin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class CodecBenchmark {
+
+  private static final Type BOOK_LIST = Types.parameterized(List.class, Book.class);
+
+  @Param({"1", "100", "10000"})
+  private int size;
+
+  private final JSONBodyEncoder encoder = new JSONBodyEncoder();
+
+  private final JSONBodyDecoder decoder = new JSONBodyDecoder();
+
+  private List<Book> books;
+
+  private String json;
+
+  private byte[] jsonBytes;
+
+  @Setup
+  public void setup() {
+    books = Books.list(size);
+    json = encoder.encode(books);
+    jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public String encode() {
+    return encoder.encode(books);
+  }
+
+  @Benchmark
+  public List<Book> decodeString() {
+    return decoder.decode(json, BOOK_LIST);
+  }
+
+  @Benchmark
+  public List<Book> decodeStream() {
+    return decoder.decode(new ByteArrayInputStream(jsonBytes), BOOK_LIST);
+  }
+
+  @Benchmark
+  public void decodeElements(Blackhole blackhole) {
+    Iterator<Book> elements = decoder.decodeElements(new ByteArrayInputStream(jsonBytes),
+                                                     Book.class
+    );
+    while (elements.hasNext()) {
+      blackhole.consume(elements.next());
+    }
+  }
+
+}
@@ -0,0 +1,30 @@
+package tech.hiddenproject.hic.benchmark;
+
+import java.util.List;
+import tech.hiddenproject.hic.annotation.Body;
+import tech.hiddenproject.hic.annotation.GET;
+import tech.hiddenproject.hic.annotation.POST;
+import tech.hiddenproject.hic.annotation.Path;
+import tech.hiddenproject.hic.annotation.Query;
+import tech.hiddenproject.hic.example.Book;
+
+/**
+ * Copy of {@link tech.hiddenproject.hic.example.BookClient} methods used in benchmarks. This
+ * module is compiled with {@link tech.hiddenproject.hic.processor.WebClientProcessor}, so
+ * implementation of this interface is generated at build time, while {@code BookClient} from
+ * library jar has none and is implemented with proxy or at runtime.
+ *
+ * @author Danila Rassokhin
+ */
+public interface GeneratedBookClient {
+
+  @GET("/book")
+  List<Book> getBooks(@Query("page") Integer page);
+
+  @GET("/book/{id}")
+  Book getBook(@Path("id") Integer id);
+
+  @POST("/book")
+  Book createBook(@Body Book newBook);
+
+}
@@ -0,0 +1,87 @@
+package tech.hiddenproject.hic.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.hiddenproject.hic.WebClient;
+import tech.hiddenproject.hic.data.ClientImplementation;
+import tech.hiddenproject.hic.encoder.impl.JSONBodyEncoder;
+import tech.hiddenproject.hic.example.Book;
+import tech.hiddenproject.hic.example.BookClient;
+import tech.hiddenproject.hic.transport.InMemoryTransport;
+
+/**
+ * Measures whole client pipeline without network: calls are served by
+ * {@link InMemoryTransport}, so only dispatch, binding, request creation, encoding and decoding
+ * are left.
+ *
+ * @author Danila Rassokhin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class PipelineBenchmark {
+
+  @Param({"PROXY", "RUNTIME_GENERATED", "GENERATED"})
+  private String implementation;
+
+  @Param({"10", "1000"})
+  private int listSize;
+
+  private BookClient client;
+
+  private GeneratedBookClient generated;
+
+  private Book book;
+
+  @Setup
+  public void setup() {
+    book = new Book(1L, "Book number 1");
+    JSONBodyEncoder encoder = new JSONBodyEncoder();
+    InMemoryTransport transport = new InMemoryTransport()
+        .respond("GET", "/book/1", 200, encoder.encode(book))
+        .respond("GET", "/book?page=1", 200, encoder.encode(Books.list(listSize)))
+        .respond("POST", "/book", 200, encoder.encode(book));
+    if (implementation.equals("GENERATED")) {
+      generated = WebClient.of(GeneratedBookClient.class)
+          .baseUrl("http://localhost")
+          .transport(transport)
+          .create();
+    } else {
+      client = WebClient.of(BookClient.class)
+          .baseUrl("http://localhost")
+          .transport(transport)
+          .implementation(ClientImplementation.valueOf(implementation))
+          .create();
+    }
+  }
+
+  @Benchmark
+  public Book getBook() {
+    return generated != null ? generated.getBook(1) : client.getBook(1);
+  }
+
+  @Benchmark
+  public List<Book> getBooks() {
+    return generated != null ? generated.getBooks(1) : client.getBooks(1);
+  }
+
+  @Benchmark
+  public Book createBook() {
+    return generated != null ? generated.createBook(book) : client.createBook(book);
+  }
+
+}
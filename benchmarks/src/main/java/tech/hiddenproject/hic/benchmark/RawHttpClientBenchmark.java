@@ -0,0 +1,100 @@
+package tech.hiddenproject.hic.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.hiddenproject.hic.decoder.impl.JSONBodyDecoder;
+import tech.hiddenproject.hic.encoder.impl.JSONBodyEncoder;
+import tech.hiddenproject.hic.example.Book;
+import tech.hiddenproject.hic.util.Types;
+
+/**
+ * Baseline for {@link RoundTripBenchmark}: the same requests made with {@link HttpClient} and
+ * the same JSON codecs directly.
+ *
+ * @author Danila Rassokhin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dorg.slf4j.simpleLogger.defaultLogLevel=warn",
+    "-Dsun.net.httpserver.nodelay=true"})
+public class RawHttpClientBenchmark {
+
+  @Param({"10", "1000"})
+  private int listSize;
+
+  private final HttpClient httpClient = HttpClient.newHttpClient();
+
+  private final JSONBodyEncoder encoder = new JSONBodyEncoder();
+
+  private final JSONBodyDecoder decoder = new JSONBodyDecoder();
+
+  private BookStub stub;
+
+  private Book book;
+
+  @Setup
+  public void setup() throws IOException {
+    stub = new BookStub(listSize);
+    book = new Book(1L, "Book number 1");
+  }
+
+  @TearDown
+  public void tearDown() {
+    stub.close();
+  }
+
+  @Benchmark
+  public Book getBook() throws IOException, InterruptedException {
+    HttpRequest request = request("/book/1").GET().build();
+    return decoder.decode(httpClient.send(request, BodyHandlers.ofInputStream()).body(),
+                          Book.class
+    );
+  }
+
+  @Benchmark
+  public List<Book> getBooks() throws IOException, InterruptedException {
+    HttpRequest request = request("/book?page=1").GET().build();
+    return decoder.decode(httpClient.send(request, BodyHandlers.ofInputStream()).body(),
+                          Types.parameterized(List.class, Book.class)
+    );
+  }
+
+  @Benchmark
+  public Book createBook() throws IOException, InterruptedException {
+    HttpRequest request = request("/book")
+        .POST(BodyPublishers.ofString(encoder.encode(book)))
+        .build();
+    return decoder.decode(httpClient.send(request, BodyHandlers.ofInputStream()).body(),
+                          Book.class
+    );
+  }
+
+  private HttpRequest.Builder request(String path) {
+    return HttpRequest.newBuilder()
+        .uri(URI.create(stub.getUrl() + path))
+        .version(HttpClient.Version.HTTP_2)
+        .header("Content-Type", "application/json");
+  }
+
+}
@@ -0,0 +1,87 @@
+package tech.hiddenproject.hic.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.hiddenproject.hic.WebClient;
+import tech.hiddenproject.hic.data.ClientImplementation;
+import tech.hiddenproject.hic.example.Book;
+import tech.hiddenproject.hic.example.BookClient;
+
+/**
+ * Measures full calls against {@link BookStub} for each way client interface can be implemented:
+ * {@code PROXY}, {@code RUNTIME_GENERATED} with Byte Buddy and {@code GENERATED} at build time.
+ * Compare with {@link RawHttpClientBenchmark} to see overhead of library.
+ *
+ * @author Danila Rassokhin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dorg.slf4j.simpleLogger.defaultLogLevel=warn",
+    "-Dsun.net.httpserver.nodelay=true"})
+public class RoundTripBenchmark {
+
+  @Param({"PROXY", "RUNTIME_GENERATED", "GENERATED"})
+  private String implementation;
+
+  @Param({"10", "1000"})
+  private int listSize;
+
+  private BookStub stub;
+
+  private BookClient client;
+
+  private GeneratedBookClient generated;
+
+  private Book book;
+
+  @Setup
+  public void setup() throws IOException {
+    stub = new BookStub(listSize);
+    book = new Book(1L, "Book number 1");
+    if (implementation.equals("GENERATED")) {
+      generated = WebClient.of(GeneratedBookClient.class).baseUrl(stub.getUrl()).create();
+    } else {
+      client = WebClient.of(BookClient.class)
+          .baseUrl(stub.getUrl())
+          .implementation(ClientImplementation.valueOf(implementation))
+          .create();
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    stub.close();
+  }
+
+  @Benchmark
+  public Book getBook() {
+    return generated != null ? generated.getBook(1) : client.getBook(1);
+  }
+
+  @Benchmark
+  public List<Book> getBooks() {
+    return generated != null ? generated.getBooks(1) : client.getBooks(1);
+  }
+
+  @Benchmark
+  public Book createBook() {
+    return generated != null ? generated.createBook(book) : client.createBook(book);
+  }
+
+}
@@ -0,0 +1,139 @@
+package tech.hiddenproject.hic.benchmark.load;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import tech.hiddenproject.hic.metrics.Histogram;
+
+/**
+ * Closed-model load generator: fixed number of callers, each starts next request only when
+ * previous one is completed. Shows how many concurrent blocking calls client sustains and how
+ * much memory and how many threads they take, while {@link LoadGenerator} shows latency at given
+ * rate.
+ *
+ * @author Danila Rassokhin
+ */
+public class ClosedLoadGenerator {
+
+  private final int concurrency;
+
+  private final Duration warmup;
+
+  private final Duration duration;
+
+  private final Duration drainTimeout;
+
+  /**
+   * @param concurrency  Count of callers
+   * @param warmup       Time of load before measurement
+   * @param duration     Time of measured load
+   * @param drainTimeout Max time to wait for requests in progress after load is stopped
+   */
+  public ClosedLoadGenerator(int concurrency, Duration warmup, Duration duration,
+                             Duration drainTimeout) {
+    this.concurrency = concurrency;
+    this.warmup = warmup;
+    this.duration = duration;
+    this.drainTimeout = drainTimeout;
+  }
+
+  /**
+   * Generates load.
+   *
+   * @param name    Name of run
+   * @param request Starts one request and returns its future. Blocking calls must be started on
+   *                executor with at least {@link #concurrency} threads
+   * @return {@link LoadReport}
+   */
+  public LoadReport run(String name, Supplier<CompletableFuture<?>> request) {
+    Run run = new Run(request);
+    for (int i = 0; i < concurrency; i++) {
+      run.next();
+    }
+    LoadGenerator.sleepUntil(run.measureFrom);
+    long[] gcBefore = LoadGenerator.gcTotals();
+    ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+    ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+    LoadGenerator.sleepUntil(run.end);
+    long[] gcAfter = LoadGenerator.gcTotals();
+    long heapPeak = LoadGenerator.heapPeak();
+    int threadsPeak = ManagementFactory.getThreadMXBean().getPeakThreadCount();
+    try {
+      run.callers.await(drainTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return new LoadReport(name, "closed", concurrency, duration.toMillis() / 1000.0,
+                          run.sent.sum(), run.errors.sum(), run.callers.getCount(),
+                          run.latency.snapshot(), gcAfter[0] - gcBefore[0],
+                          gcAfter[1] - gcBefore[1], heapPeak, threadsPeak
+    );
+  }
+
+  private class Run {
+
+    private final Supplier<CompletableFuture<?>> request;
+
+    private final long measureFrom = System.nanoTime() + warmup.toNanos();
+
+    private final long end = measureFrom + duration.toNanos();
+
+    private final Histogram latency = new Histogram();
+
+    private final LongAdder sent = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final CountDownLatch callers = new CountDownLatch(concurrency);
+
+    private Run(Supplier<CompletableFuture<?>> request) {
+      this.request = request;
+    }
+
+    /**
+     * Starts requests of one caller until load is stopped. Requests completed synchronously are
+     * repeated in loop instead of recursion.
+     */
+    private void next() {
+      while (true) {
+        long start = System.nanoTime();
+        if (start - end >= 0) {
+          callers.countDown();
+          return;
+        }
+        CompletableFuture<?> future;
+        try {
+          future = request.get();
+        } catch (RuntimeException e) {
+          complete(start, true);
+          continue;
+        }
+        if (!future.isDone()) {
+          future.whenComplete((result, throwable) -> {
+            complete(start, throwable != null);
+            next();
+          });
+          return;
+        }
+        complete(start, future.isCompletedExceptionally());
+      }
+    }
+
+    private void complete(long start, boolean failed) {
+      if (start - measureFrom < 0) {
+        return;
+      }
+      sent.increment();
+      if (!failed) {
+        latency.record(System.nanoTime() - start);
+      } else {
+        errors.increment();
+      }
+    }
+  }
+}
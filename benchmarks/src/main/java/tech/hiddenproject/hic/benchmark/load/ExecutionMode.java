@@ -0,0 +1,26 @@
+package tech.hiddenproject.hic.benchmark.load;
+
+/**
+ * How {@link LoadTest} calls client.
+ *
+ * @author Danila Rassokhin
+ */
+public enum ExecutionMode {
+
+  /**
+   * Blocking method called on pool of platform threads.
+   */
+  SYNC,
+
+  /**
+   * Method returning {@link java.util.concurrent.CompletableFuture} called from generator thread.
+   */
+  ASYNC,
+
+  /**
+   * Blocking method called on new virtual thread, with client created with
+   * {@link tech.hiddenproject.hic.WebClient#virtualThreads()}. Requires Java 21+.
+   */
+  VIRTUAL
+
+}
@@ -0,0 +1,151 @@
+package tech.hiddenproject.hic.benchmark.load;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import tech.hiddenproject.hic.metrics.Histogram;
+
+/**
+ * Open-model load generator: requests are started at constant rate whether previous requests are
+ * completed or not, like independent users do. Latency is measured from time when request was
+ * scheduled to start, not when it was actually started, so delays of generator or of saturated
+ * client are included instead of hidden (coordinated omission).
+ *
+ * @author Danila Rassokhin
+ */
+public class LoadGenerator {
+
+  private final double rate;
+
+  private final Duration warmup;
+
+  private final Duration duration;
+
+  private final Duration drainTimeout;
+
+  /**
+   * @param rate         Requests per second
+   * @param warmup       Time of load before measurement
+   * @param duration     Time of measured load
+   * @param drainTimeout Max time to wait for requests in progress after load is stopped
+   */
+  public LoadGenerator(double rate, Duration warmup, Duration duration, Duration drainTimeout) {
+    this.rate = rate;
+    this.warmup = warmup;
+    this.duration = duration;
+    this.drainTimeout = drainTimeout;
+  }
+
+  /**
+   * Generates load.
+   *
+   * @param name    Name of run
+   * @param request Starts one request without blocking and returns its future
+   * @return {@link LoadReport}
+   */
+  public LoadReport run(String name, Supplier<CompletableFuture<?>> request) {
+    long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+    long start = System.nanoTime();
+    long measureFrom = start + warmup.toNanos();
+    long end = measureFrom + duration.toNanos();
+    Histogram latency = new Histogram();
+    LongAdder errors = new LongAdder();
+    AtomicLong outstanding = new AtomicLong();
+    long sent = 0;
+    long[] gcBefore = null;
+    for (long i = 0; ; i++) {
+      long intended = start + i * interval;
+      if (intended - end >= 0) {
+        break;
+      }
+      sleepUntil(intended);
+      boolean measured = intended - measureFrom >= 0;
+      if (measured && gcBefore == null) {
+        gcBefore = gcTotals();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+      }
+      if (measured) {
+        sent++;
+        outstanding.incrementAndGet();
+      }
+      CompletableFuture<?> future;
+      try {
+        future = request.get();
+      } catch (RuntimeException e) {
+        if (measured) {
+          errors.increment();
+          outstanding.decrementAndGet();
+        }
+        continue;
+      }
+      if (measured) {
+        future.whenComplete((result, throwable) -> {
+          if (throwable == null) {
+            latency.record(System.nanoTime() - intended);
+          } else {
+            errors.increment();
+          }
+          outstanding.decrementAndGet();
+        });
+      }
+    }
+    long drainDeadline = System.nanoTime() + drainTimeout.toNanos();
+    while (outstanding.get() > 0 && System.nanoTime() - drainDeadline < 0) {
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+    }
+    long[] gcAfter = gcTotals();
+    if (gcBefore == null) {
+      gcBefore = gcAfter;
+    }
+    return new LoadReport(name, "open", rate, duration.toMillis() / 1000.0, sent, errors.sum(),
+                          outstanding.get(), latency.snapshot(), gcAfter[0] - gcBefore[0],
+                          gcAfter[1] - gcBefore[1], heapPeak(),
+                          ManagementFactory.getThreadMXBean().getPeakThreadCount()
+    );
+  }
+
+  /**
+   * Parks current thread until given {@link System#nanoTime()}.
+   */
+  static void sleepUntil(long nanoTime) {
+    long wait;
+    while ((wait = nanoTime - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(wait);
+    }
+  }
+
+  /**
+   * @return Total count and time in millis of garbage collections
+   */
+  static long[] gcTotals() {
+    long count = 0;
+    long millis = 0;
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(0, collector.getCollectionCount());
+      millis += Math.max(0, collector.getCollectionTime());
+    }
+    return new long[]{count, millis};
+  }
+
+  /**
+   * @return Sum of peak usage of heap memory pools since last reset
+   */
+  static long heapPeak() {
+    long peak = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+        peak += pool.getPeakUsage().getUsed();
+      }
+    }
+    return peak;
+  }
+}
@@ -0,0 +1,137 @@
+package tech.hiddenproject.hic.benchmark.load;
+
+import java.time.Instant;
+import java.util.Locale;
+import tech.hiddenproject.hic.metrics.HistogramSnapshot;
+
+/**
+ * Result of single {@link LoadGenerator} run.
+ *
+ * @author Danila Rassokhin
+ */
+public class LoadReport {
+
+  private final String name;
+
+  private final String model;
+
+  private final double load;
+
+  private final double seconds;
+
+  private final long sent;
+
+  private final long errors;
+
+  private final long timeouts;
+
+  private final HistogramSnapshot latency;
+
+  private final long gcCount;
+
+  private final long gcMillis;
+
+  private final long heapPeakBytes;
+
+  private final int threadsPeak;
+
+  LoadReport(String name, String model, double load, double seconds, long sent, long errors,
+             long timeouts, HistogramSnapshot latency, long gcCount, long gcMillis,
+             long heapPeakBytes, int threadsPeak) {
+    this.name = name;
+    this.model = model;
+    this.load = load;
+    this.seconds = seconds;
+    this.sent = sent;
+    this.errors = errors;
+    this.timeouts = timeouts;
+    this.latency = latency;
+    this.gcCount = gcCount;
+    this.gcMillis = gcMillis;
+    this.heapPeakBytes = heapPeakBytes;
+    this.threadsPeak = threadsPeak;
+  }
+
+  /**
+   * @return Header of {@link #toRow()} table
+   */
+  public static String header() {
+    return String.format(Locale.ROOT,
+                         "%-12s %6s %8s %10s %8s %8s %10s %10s %10s %10s %6s %8s %9s %8s",
+                         "mode", "model", "load", "throughput", "errors", "timeouts", "p50 ms",
+                         "p99 ms", "p99.9 ms", "max ms", "gc", "gc ms", "heap MB", "threads"
+    );
+  }
+
+  /**
+   * @return Completed requests per second
+   */
+  public double getThroughput() {
+    return latency.getCount() / seconds;
+  }
+
+  /**
+   * @return Report as row of table. Load is request rate for open model and count of callers for
+   * closed model
+   */
+  public String toRow() {
+    return String.format(Locale.ROOT,
+                         "%-12s %6s %8.0f %10.1f %8d %8d %10.2f %10.2f %10.2f %10.2f %6d %8d %9d"
+                             + " %8d",
+                         name, model, load, getThroughput(), errors, timeouts, millis(50),
+                         millis(99), millis(99.9), latency.getMax() / 1e6, gcCount, gcMillis,
+                         heapPeakBytes / (1024 * 1024), threadsPeak
+    );
+  }
+
+  /**
+   * @param startedAt Time of run
+   * @return Report as single line JSON object
+   */
+  public String toJson(Instant startedAt) {
+    return String.format(Locale.ROOT,
+                         "{\"time\":\"%s\",\"mode\":\"%s\",\"model\":\"%s\",\"load\":%.1f,"
+                             + "\"seconds\":%.1f,"
+                             + "\"sent\":%d,\"completed\":%d,\"throughput\":%.1f,\"errors\":%d,"
+                             + "\"timeouts\":%d,\"p50Ms\":%.3f,\"p99Ms\":%.3f,\"p999Ms\":%.3f,"
+                             + "\"maxMs\":%.3f,\"gcCount\":%d,\"gcMs\":%d,\"heapPeakBytes\":%d,"
+                             + "\"threadsPeak\":%d,\"java\":\"%s\"}",
+                         startedAt, name, model, load, seconds, sent, latency.getCount(),
+                         getThroughput(), errors, timeouts, millis(50), millis(99), millis(99.9),
+                         latency.getMax() / 1e6, gcCount, gcMillis, heapPeakBytes, threadsPeak,
+                         System.getProperty("java.version")
+    );
+  }
+
+  private double millis(double percentile) {
+    return latency.getValueAtPercentile(percentile) / 1e6;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getModel() {
+    return model;
+  }
+
+  public int getThreadsPeak() {
+    return threadsPeak;
+  }
+
+  public long getSent() {
+    return sent;
+  }
+
+  public long getErrors() {
+    return errors;
+  }
+
+  public long getTimeouts() {
+    return timeouts;
+  }
+
+  public HistogramSnapshot getLatency() {
+    return latency;
+  }
+}
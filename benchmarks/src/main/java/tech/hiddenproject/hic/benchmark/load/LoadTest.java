@@ -0,0 +1,152 @@
+package tech.hiddenproject.hic.benchmark.load;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import tech.hiddenproject.hic.WebClient;
+import tech.hiddenproject.hic.benchmark.BookStub;
+import tech.hiddenproject.hic.benchmark.Books;
+import tech.hiddenproject.hic.data.ClientImplementation;
+import tech.hiddenproject.hic.encoder.impl.JSONBodyEncoder;
+import tech.hiddenproject.hic.example.BookClient;
+import tech.hiddenproject.hic.executor.VirtualThreads;
+import tech.hiddenproject.hic.transport.InMemoryTransport;
+
+/**
+ * Runs {@link LoadGenerator} or {@link ClosedLoadGenerator} against {@link BookClient} in each
+ * {@link ExecutionMode}, prints latency table and appends results to JSON lines file, so runs can
+ * be compared.
+ *
+ * <p>Options: {@code --model open|closed --rate 1000 --concurrency 10000 --warmup 10
+ * --duration 20 --modes SYNC,ASYNC,VIRTUAL --threads 200 --list-size 10 --implementation PROXY
+ * --latency 0 --url <base url, in-process stub if not set> --transport http|memory
+ * --output load-results.jsonl}. Open model starts {@code rate} requests per second, blocking calls
+ * run on pool of {@code threads} platform threads. Closed model runs {@code concurrency} callers,
+ * each blocking call holds its own platform or virtual thread. {@code latency} is delay in millis
+ * of in-process stub responses. With {@code --transport memory} requests are served by
+ * {@link InMemoryTransport}, so only client overhead is loaded. Every mode sends the same
+ * {@code GET /book?page=1} request, so modes differ only in how calls are executed.
+ *
+ * @author Danila Rassokhin
+ */
+public class LoadTest {
+
+  public static void main(String... args) throws IOException {
+    Map<String, String> options = parse(args);
+    double rate = Double.parseDouble(options.getOrDefault("rate", "1000"));
+    boolean closedModel = options.getOrDefault("model", "open").equals("closed");
+    int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "10000"));
+    int threads = closedModel ? concurrency
+        : Integer.parseInt(options.getOrDefault("threads", "200"));
+    Duration latency = Duration.ofMillis(Long.parseLong(options.getOrDefault("latency", "0")));
+    int listSize = Integer.parseInt(options.getOrDefault("list-size", "10"));
+    ClientImplementation implementation = ClientImplementation.valueOf(
+        options.getOrDefault("implementation", "PROXY"));
+    Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+    Duration duration = Duration.ofSeconds(
+        Long.parseLong(options.getOrDefault("duration", "20")));
+    LoadGenerator generator = new LoadGenerator(rate, warmup, duration, Duration.ofSeconds(30));
+    ClosedLoadGenerator closedGenerator = new ClosedLoadGenerator(concurrency, warmup, duration,
+                                                                  Duration.ofSeconds(30));
+    Path output = Paths.get(options.getOrDefault("output", "load-results.jsonl"));
+    Instant startedAt = Instant.now();
+
+    boolean inMemory = options.getOrDefault("transport", "http").equals("memory");
+    InMemoryTransport transport = null;
+    if (inMemory) {
+      String books = new JSONBodyEncoder().encode(Books.list(listSize));
+      transport = new InMemoryTransport().respond("GET", "/book?page=1", 200, books);
+    }
+    BookStub stub = inMemory || options.containsKey("url") ? null : new BookStub(listSize, latency);
+    String url = stub != null ? stub.getUrl() : options.getOrDefault("url", "http://localhost");
+    List<LoadReport> reports = new ArrayList<>();
+    try {
+      for (String modeName : options.getOrDefault("modes", "SYNC,ASYNC,VIRTUAL").split(",")) {
+        ExecutionMode mode = ExecutionMode.valueOf(modeName.trim());
+        WebClient<BookClient> builder = WebClient.of(BookClient.class)
+            .baseUrl(url)
+            .implementation(implementation);
+        if (transport != null) {
+          builder.transport(transport);
+        }
+        ExecutorService executor = null;
+        if (mode == ExecutionMode.VIRTUAL) {
+          Optional<ExecutorService> virtual = VirtualThreads.newVirtualThreadPerTaskExecutor();
+          if (virtual.isEmpty()) {
+            System.out.println("Skipping VIRTUAL: virtual threads require Java 21+");
+            continue;
+          }
+          executor = virtual.get();
+          builder.virtualThreads();
+        } else if (mode == ExecutionMode.SYNC) {
+          executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "load-sync");
+            thread.setDaemon(true);
+            return thread;
+          });
+        }
+        BookClient client = builder.create();
+        ExecutorService callExecutor = executor;
+        Supplier<CompletableFuture<?>> request = mode == ExecutionMode.ASYNC
+            ? () -> client.getBooksAsync(1)
+            : () -> CompletableFuture.supplyAsync(() -> client.getBooks(1), callExecutor);
+        System.gc();
+        LoadReport report;
+        if (closedModel) {
+          System.out.println("Running " + mode + " with " + concurrency + " callers");
+          report = closedGenerator.run(mode.name(), request);
+        } else {
+          System.out.println("Running " + mode + " at " + rate + " requests/s");
+          report = generator.run(mode.name(), request);
+        }
+        reports.add(report);
+        System.out.println(report.toRow());
+        if (executor != null) {
+          executor.shutdownNow();
+        }
+      }
+    } finally {
+      if (stub != null) {
+        stub.close();
+      }
+    }
+
+    System.out.println();
+    System.out.println(LoadReport.header());
+    List<String> lines = new ArrayList<>();
+    for (LoadReport report : reports) {
+      System.out.println(report.toRow());
+      lines.add(report.toJson(startedAt));
+    }
+    Files.write(output, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND
+    );
+    System.out.println("Results appended to " + output.toAbsolutePath());
+  }
+
+  private static Map<String, String> parse(String... args) {
+    Map<String, String> options = new HashMap<>();
+    for (int i = 0; i < args.length; i++) {
+      if (!args[i].startsWith("--") || i + 1 >= args.length) {
+        throw new IllegalArgumentException("Expected --option value, got: " + args[i]);
+      }
+      options.put(args[i].substring(2), args[++i]);
+    }
+    return options;
+  }
+
+}
@@ -0,0 +1,443 @@
+package tech.hiddenproject.hic;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow.Publisher;
+import java.util.stream.Stream;
+import tech.hiddenproject.hic.annotation.Batched;
+import tech.hiddenproject.hic.annotation.Cacheable;
+import tech.hiddenproject.hic.annotation.ConcurrencyLimit;
+import tech.hiddenproject.hic.annotation.DELETE;
+import tech.hiddenproject.hic.annotation.GET;
+import tech.hiddenproject.hic.annotation.Hedged;
+import tech.hiddenproject.hic.annotation.POST;
+import tech.hiddenproject.hic.annotation.PUT;
+import tech.hiddenproject.hic.annotation.Path;
+import tech.hiddenproject.hic.annotation.Query;
+import tech.hiddenproject.hic.annotation.RateLimit;
+import tech.hiddenproject.hic.annotation.Streaming;
+import tech.hiddenproject.hic.cache.ResponseCache;
+import tech.hiddenproject.hic.data.RequestContent;
+import tech.hiddenproject.hic.data.RequestMethod;
+import tech.hiddenproject.hic.data.StreamFormat;
+import tech.hiddenproject.hic.data.impl.Response;
+import tech.hiddenproject.hic.exception.HttpClientException;
+import tech.hiddenproject.hic.util.BooleanOptional;
+import tech.hiddenproject.hic.util.IfTrueConditional;
+import tech.hiddenproject.hic.util.ObjectUtils;
+
+/**
+ * Precompiled invocation plan of {@link WebClient} interface method. Holds everything which can be
+ * resolved from method signature, so calls don't need to touch reflection.
+ *
+ * @author Danila Rassokhin
+ */
+public class MethodPlan {
+
+  private final Method method;
+
+  private final RequestMethod requestMethod;
+
+  private final UriTemplate uriTemplate;
+
+  private final RequestContent contentType;
+
+  private final boolean async;
+
+  private final ResponseShape responseShape;
+
+  private final Type bodyType;
+
+  private final StreamFormat streamFormat;
+
+  private final Cacheable cacheable;
+
+  private final Batched batched;
+
+  private final Method batchMethod;
+
+  private final int batchKeyIndex;
+
+  private final Hedged hedged;
+
+  private final ConcurrencyLimit concurrencyLimit;
+
+  private final RateLimit rateLimit;
+
+  private final ParameterBinder[] binders;
+
+  private MethodPlan(Method method, RequestMethod requestMethod, UriTemplate uriTemplate,
+                     RequestContent contentType, boolean async, ResponseShape responseShape,
+                     Type bodyType, StreamFormat streamFormat, Cacheable cacheable,
+                     Batched batched, Method batchMethod, int batchKeyIndex, Hedged hedged,
+                     ConcurrencyLimit concurrencyLimit, RateLimit rateLimit,
+                     ParameterBinder[] binders) {
+    this.method = method;
+    this.requestMethod = requestMethod;
+    this.uriTemplate = uriTemplate;
+    this.contentType = contentType;
+    this.async = async;
+    this.responseShape = responseShape;
+    this.bodyType = bodyType;
+    this.streamFormat = streamFormat;
+    this.cacheable = cacheable;
+    this.batched = batched;
+    this.batchMethod = batchMethod;
+    this.batchKeyIndex = batchKeyIndex;
+    this.hedged = hedged;
+    this.concurrencyLimit = concurrencyLimit;
+    this.rateLimit = rateLimit;
+    this.binders = binders;
+  }
+
+  /**
+   * Creates plan for given method.
+   *
+   * @param method {@link WebClient} interface method
+   * @return {@link MethodPlan}
+   */
+  public static MethodPlan of(Method method) {
+    GET get = AnnotationProcessor.extractMethodAnnotation(method, GET.class);
+    POST post = AnnotationProcessor.extractMethodAnnotation(method, POST.class);
+    PUT put = AnnotationProcessor.extractMethodAnnotation(method, PUT.class);
+    DELETE delete = AnnotationProcessor.extractMethodAnnotation(method, DELETE.class);
+
+    BooleanOptional.of(ObjectUtils.isMoreThanNull(get, post, put, delete))
+        .ifTrueThrow(() -> new HttpClientException(
+            "More than one @GET, @POST, @PUT or @DELETE annotations found"));
+    String path = IfTrueConditional.create()
+        .ifTrue(get, Objects::nonNull).then(() -> get.value())
+        .ifTrue(post, Objects::nonNull).then(() -> post.value())
+        .ifTrue(put, Objects::nonNull).then(() -> put.value())
+        .ifTrue(delete, Objects::nonNull).then(() -> delete.value())
+        .orElse("");
+    RequestMethod requestMethod = IfTrueConditional.create()
+        .ifTrue(get, Objects::nonNull).then(RequestMethod.GET)
+        .ifTrue(post, Objects::nonNull).then(RequestMethod.POST)
+        .ifTrue(put, Objects::nonNull).then(RequestMethod.PUT)
+        .ifTrue(delete, Objects::nonNull).then(RequestMethod.DELETE)
+        .orElseThrows(() -> new HttpClientException(
+            "No @GET, @POST, @PUT or @DELETE annotations found on called method"));
+    RequestContent contentType = IfTrueConditional.create()
+        .ifTrue(get, Objects::nonNull).then(() -> get.contentType())
+        .ifTrue(post, Objects::nonNull).then(() -> post.contentType())
+        .ifTrue(put, Objects::nonNull).then(() -> put.contentType())
+        .ifTrue(delete, Objects::nonNull).then(() -> delete.contentType())
+        .orElse(RequestContent.APPLICATION_JSON);
+
+    boolean async = method.getReturnType().equals(CompletableFuture.class);
+    Type resultType = async ? typeArgument(method.getGenericReturnType())
+        : method.getGenericReturnType();
+    ResponseShape responseShape = ResponseShape.BODY;
+    Type bodyType = resultType;
+    if (resultType.equals(void.class) || resultType.equals(Void.class)) {
+      responseShape = ResponseShape.VOID;
+    } else if (rawType(resultType).equals(Response.class)) {
+      responseShape = ResponseShape.WRAPPED;
+      bodyType = typeArgument(resultType);
+    } else if (!async && rawType(resultType).equals(Stream.class)) {
+      responseShape = ResponseShape.STREAM;
+      bodyType = typeArgument(resultType);
+    } else if (!async && rawType(resultType).equals(Publisher.class)) {
+      responseShape = ResponseShape.PUBLISHER;
+      bodyType = typeArgument(resultType);
+    }
+    Streaming streaming = AnnotationProcessor.extractMethodAnnotation(method, Streaming.class);
+    StreamFormat streamFormat = streaming == null ? null : streaming.value();
+    BooleanOptional.of(streamFormat != null && responseShape != ResponseShape.STREAM
+                           && responseShape != ResponseShape.PUBLISHER)
+        .ifTrueThrow(() -> new HttpClientException(
+            "@Streaming method must return Stream or Flow.Publisher: " + method));
+    Hedged hedged = AnnotationProcessor.extractMethodAnnotation(method, Hedged.class);
+    BooleanOptional.of(hedged != null && requestMethod == RequestMethod.POST)
+        .ifTrueThrow(() -> new HttpClientException(
+            "@Hedged method must be idempotent, @POST is not: " + method));
+    Batched batched = AnnotationProcessor.extractMethodAnnotation(method, Batched.class);
+    ConcurrencyLimit concurrencyLimit = AnnotationProcessor.extractMethodAnnotation(
+        method, ConcurrencyLimit.class);
+    BooleanOptional.of(concurrencyLimit != null && (concurrencyLimit.initialLimit() < 1
+            || concurrencyLimit.maxLimit() < concurrencyLimit.initialLimit()
+            || concurrencyLimit.maxQueue() < 0))
+        .ifTrueThrow(() -> new HttpClientException(
+            "@ConcurrencyLimit must have 0 < initialLimit <= maxLimit and maxQueue >= 0: "
+                + method));
+    RateLimit rateLimit = AnnotationProcessor.extractMethodAnnotation(method, RateLimit.class);
+    BooleanOptional.of(rateLimit != null && (rateLimit.value() <= 0 || rateLimit.burst() < 1))
+        .ifTrueThrow(() -> new HttpClientException(
+            "@RateLimit must have positive rate and burst: " + method));
+    Cacheable cacheable = AnnotationProcessor.extractMethodAnnotation(method, Cacheable.class);
+    BooleanOptional.of(cacheable != null && (requestMethod != RequestMethod.GET
+            || (responseShape != ResponseShape.BODY && responseShape != ResponseShape.WRAPPED)))
+        .ifTrueThrow(() -> new HttpClientException(
+            "@Cacheable method must be @GET and return response body: " + method));
+
+    UriTemplate uriTemplate = UriTemplate.compile(path);
+    Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+    ParameterBinder[] binders = new ParameterBinder[parameterAnnotations.length];
+    for (int i = 0; i < parameterAnnotations.length; i++) {
+      binders[i] = ParameterBinder.of(parameterAnnotations[i], uriTemplate);
+    }
+    int batchKeyIndex = batched == null ? -1 : batchKeyIndex(method, responseShape);
+    if (batchKeyIndex != -1) {
+      ParameterBinder keyBinder = binders[batchKeyIndex];
+      binders[batchKeyIndex] = (parameters, value) -> {
+        parameters.batchKey(value);
+        keyBinder.bind(parameters, value);
+      };
+    }
+    return new MethodPlan(method, requestMethod, uriTemplate, contentType, async, responseShape,
+                          bodyType, streamFormat, cacheable, batched,
+                          batched == null ? null : batchMethod(method, batched), batchKeyIndex,
+                          hedged, concurrencyLimit, rateLimit, binders
+    );
+  }
+
+  /**
+   * Checks that {@link Batched} method has one single valued {@link Path} or {@link Query} key
+   * parameter and returns its index.
+   */
+  private static int batchKeyIndex(Method method, ResponseShape responseShape) {
+    Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+    boolean hasKey = parameterAnnotations.length == 1 && Arrays.stream(parameterAnnotations[0])
+        .anyMatch(annotation -> annotation instanceof Path || annotation instanceof Query);
+    BooleanOptional.of(!hasKey || responseShape != ResponseShape.BODY)
+        .ifTrueThrow(() -> new HttpClientException(
+            "@Batched method must have one @Path or @Query parameter and return item: "
+                + method));
+    Class<?> keyType = method.getParameterTypes()[0];
+    BooleanOptional.of(Iterable.class.isAssignableFrom(keyType) || keyType.isArray())
+        .ifTrueThrow(() -> new HttpClientException(
+            "@Batched method key must be single value: " + method));
+    return 0;
+  }
+
+  /**
+   * Finds bulk method for {@link Batched} method and checks that it returns collection or array
+   * of items.
+   */
+  private static Method batchMethod(Method method, Batched batched) {
+    Method bulk = Arrays.stream(method.getDeclaringClass().getMethods())
+        .filter(candidate -> candidate.getName().equals(batched.value()))
+        .filter(candidate -> candidate.getParameterCount() == 1)
+        .findFirst()
+        .orElseThrow(() -> new HttpClientException(
+            "Bulk method " + batched.value() + " with one parameter not found for: " + method));
+    Type result = bulk.getReturnType().equals(CompletableFuture.class)
+        ? typeArgument(bulk.getGenericReturnType()) : bulk.getGenericReturnType();
+    boolean items = result instanceof GenericArrayType || rawType(result).isArray()
+        || Iterable.class.isAssignableFrom(rawType(result));
+    BooleanOptional.of(!items)
+        .ifTrueThrow(() -> new HttpClientException(
+            "Bulk method must return collection or array of items, not Response: " + bulk));
+    return bulk;
+  }
+
+  private static Type typeArgument(Type type) {
+    if (type instanceof ParameterizedType) {
+      return ((ParameterizedType) type).getActualTypeArguments()[0];
+    }
+    return Object.class;
+  }
+
+  private static Class<?> rawType(Type type) {
+    if (type instanceof Class) {
+      return (Class<?>) type;
+    }
+    if (type instanceof ParameterizedType) {
+      return (Class<?>) ((ParameterizedType) type).getRawType();
+    }
+    return Object.class;
+  }
+
+  /**
+   * Binds call arguments.
+   *
+   * @param args Method call arguments
+   * @return {@link RequestParameters}
+   */
+  public RequestParameters bind(Object[] args) {
+    RequestParameters parameters = parameters();
+    if (args == null) {
+      return parameters;
+    }
+    for (int i = 0; i < binders.length; i++) {
+      binders[i].bind(parameters, args[i]);
+    }
+    return parameters;
+  }
+
+  /**
+   * Binds single call argument.
+   *
+   * @param parameters {@link RequestParameters} of current call
+   * @param index      Parameter index
+   * @param value      Argument value
+   */
+  public void bind(RequestParameters parameters, int index, Object value) {
+    binders[index].bind(parameters, value);
+  }
+
+  /**
+   * @return Empty {@link RequestParameters} for this method
+   */
+  public RequestParameters parameters() {
+    return new RequestParameters(uriTemplate.variableCount());
+  }
+
+  public Method getMethod() {
+    return method;
+  }
+
+  public RequestMethod getRequestMethod() {
+    return requestMethod;
+  }
+
+  public UriTemplate getUriTemplate() {
+    return uriTemplate;
+  }
+
+  public RequestContent getContentType() {
+    return contentType;
+  }
+
+  /**
+   * @return true if method returns {@link CompletableFuture}
+   */
+  public boolean isAsync() {
+    return async;
+  }
+
+  public ResponseShape getResponseShape() {
+    return responseShape;
+  }
+
+  /**
+   * @return true if method returns elements of response one by one
+   */
+  public boolean isElementStream() {
+    return responseShape == ResponseShape.STREAM || responseShape == ResponseShape.PUBLISHER;
+  }
+
+  /**
+   * @return Type to decode response body into, or type of elements for element streams
+   */
+  public Type getBodyType() {
+    return bodyType;
+  }
+
+  /**
+   * @return {@link StreamFormat} of response or null if method is not {@link Streaming}
+   */
+  public StreamFormat getStreamFormat() {
+    return streamFormat;
+  }
+
+  /**
+   * @return true if responses of method are stored in {@link ResponseCache}
+   */
+  public boolean isCacheable() {
+    return cacheable != null;
+  }
+
+  /**
+   * @return true if decoded body is kept in cache, see {@link Cacheable#decoded()}
+   */
+  public boolean isCacheDecoded() {
+    return cacheable != null && cacheable.decoded();
+  }
+
+  /**
+   * @return {@link Batched} annotation of method or null
+   */
+  public Batched getBatched() {
+    return batched;
+  }
+
+  /**
+   * @return Bulk method for {@link Batched} method or null
+   */
+  public Method getBatchMethod() {
+    return batchMethod;
+  }
+
+  /**
+   * @return Index of key parameter of {@link Batched} method or -1
+   */
+  public int getBatchKeyIndex() {
+    return batchKeyIndex;
+  }
+
+  /**
+   * @return true if bulk method of {@link Batched} method receives keys joined with comma
+   */
+  public boolean isBatchKeysJoined() {
+    return batchMethod != null && batchMethod.getParameterTypes()[0].equals(String.class);
+  }
+
+  /**
+   * @return {@link Hedged} annotation of method or null
+   */
+  public Hedged getHedged() {
+    return hedged;
+  }
+
+  /**
+   * @return {@link ConcurrencyLimit} annotation of method or null
+   */
+  public ConcurrencyLimit getConcurrencyLimit() {
+    return concurrencyLimit;
+  }
+
+  /**
+   * @return {@link RateLimit} annotation of method or null
+   */
+  public RateLimit getRateLimit() {
+    return rateLimit;
+  }
+
+  /**
+   * @return true if repeating request has no additional effect on server
+   */
+  public boolean isIdempotent() {
+    return requestMethod != RequestMethod.POST;
+  }
+
+  /**
+   * Describes what method returns to caller.
+   */
+  public enum ResponseShape {
+
+    /**
+     * Method returns nothing.
+     */
+    VOID,
+
+    /**
+     * Method returns decoded body.
+     */
+    BODY,
+
+    /**
+     * Method returns {@link Response} with decoded body.
+     */
+    WRAPPED,
+
+    /**
+     * Method returns {@link Stream} of elements decoded lazily from response.
+     */
+    STREAM,
+
+    /**
+     * Method returns {@link Publisher} of elements decoded lazily from response as subscriber
+     * requests them.
+     */
+    PUBLISHER
+
+  }
+}
@@ -0,0 +1,44 @@
+package tech.hiddenproject.hic;
+
+import java.lang.reflect.Method;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Identity-keyed cache of {@link MethodPlan}. Proxies pass the same {@link Method} instance on
+ * every call, so lookups are a plain reference comparison. Reads are lock-free, new plans are
+ * published by copying the map.
+ *
+ * @author Danila Rassokhin
+ */
+public class MethodPlanCache {
+
+  private volatile Map<Method, MethodPlan> plans = new IdentityHashMap<>();
+
+  /**
+   * Gets plan for method, creating it on first use.
+   *
+   * @param method {@link WebClient} interface method
+   * @return {@link MethodPlan}
+   */
+  public MethodPlan get(Method method) {
+    MethodPlan plan = plans.get(method);
+    if (plan == null) {
+      return compute(method);
+    }
+    return plan;
+  }
+
+  private synchronized MethodPlan compute(Method method) {
+    MethodPlan plan = plans.get(method);
+    if (plan != null) {
+      return plan;
+    }
+    plan = MethodPlan.of(method);
+    Map<Method, MethodPlan> copy = new IdentityHashMap<>(plans);
+    copy.put(method, plan);
+    plans = copy;
+    return plan;
+  }
+
+}
@@ -0,0 +1,77 @@
+package tech.hiddenproject.hic;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import tech.hiddenproject.hic.annotation.Body;
+import tech.hiddenproject.hic.annotation.Field;
+import tech.hiddenproject.hic.annotation.Header;
+import tech.hiddenproject.hic.annotation.Part;
+import tech.hiddenproject.hic.annotation.Path;
+import tech.hiddenproject.hic.annotation.Query;
+import tech.hiddenproject.hic.data.MultipartData;
+
+/**
+ * Binds value of annotated method parameter into {@link RequestParameters}.
+ *
+ * @author Danila Rassokhin
+ */
+public interface ParameterBinder {
+
+  ParameterBinder NONE = (parameters, value) -> {
+  };
+
+  /**
+   * Creates binder for method parameter.
+   *
+   * @param annotations Parameter annotations
+   * @param uriTemplate Method {@link UriTemplate} to resolve path variables
+   * @return {@link ParameterBinder} or {@link #NONE} if parameter has no library annotations
+   */
+  static ParameterBinder of(Annotation[] annotations, UriTemplate uriTemplate) {
+    List<ParameterBinder> binders = new ArrayList<>();
+    for (Annotation annotation : annotations) {
+      if (annotation instanceof Query) {
+        String name = ((Query) annotation).value();
+        binders.add((parameters, value) -> parameters.query(name, value));
+      } else if (annotation instanceof Path) {
+        int index = uriTemplate.indexOf(((Path) annotation).value());
+        if (index != -1) {
+          binders.add((parameters, value) -> parameters.path(index, value));
+        }
+      } else if (annotation instanceof Header) {
+        String name = ((Header) annotation).value();
+        binders.add((parameters, value) -> parameters.header(name, value));
+      } else if (annotation instanceof Part) {
+        String name = ((Part) annotation).value();
+        binders.add((parameters, value) -> parameters.part(name, (MultipartData) value));
+      } else if (annotation instanceof Field) {
+        String name = ((Field) annotation).value();
+        binders.add((parameters, value) -> parameters.field(name, value));
+      } else if (annotation instanceof Body) {
+        binders.add(RequestParameters::body);
+      }
+    }
+    if (binders.isEmpty()) {
+      return NONE;
+    }
+    if (binders.size() == 1) {
+      return binders.get(0);
+    }
+    ParameterBinder[] all = binders.toArray(new ParameterBinder[0]);
+    return (parameters, value) -> {
+      for (ParameterBinder binder : all) {
+        binder.bind(parameters, value);
+      }
+    };
+  }
+
+  /**
+   * Binds parameter value.
+   *
+   * @param parameters {@link RequestParameters} of current call
+   * @param value      Parameter value
+   */
+  void bind(RequestParameters parameters, Object value);
+
+}
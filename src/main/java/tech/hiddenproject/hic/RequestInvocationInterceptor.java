@@ -1,48 +1,78 @@
 package tech.hiddenproject.hic;
 
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonParseException;
 import java.io.IOException;
-import java.lang.annotation.Annotation;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Objects;
+import java.util.TreeMap;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import tech.hiddenproject.hic.annotation.Body;
-import tech.hiddenproject.hic.annotation.DELETE;
-import tech.hiddenproject.hic.annotation.Field;
-import tech.hiddenproject.hic.annotation.GET;
-import tech.hiddenproject.hic.annotation.Header;
-import tech.hiddenproject.hic.annotation.POST;
-import tech.hiddenproject.hic.annotation.PUT;
-import tech.hiddenproject.hic.annotation.Part;
-import tech.hiddenproject.hic.annotation.Path;
-import tech.hiddenproject.hic.annotation.Query;
-import tech.hiddenproject.hic.data.MultipartData;
-import tech.hiddenproject.hic.data.RequestContent;
+import tech.hiddenproject.hic.MethodPlan.ResponseShape;
+import tech.hiddenproject.hic.annotation.Batched;
+import tech.hiddenproject.hic.annotation.ConcurrencyLimit;
+import tech.hiddenproject.hic.annotation.Hedged;
+import tech.hiddenproject.hic.annotation.RateLimit;
+import tech.hiddenproject.hic.balancer.Endpoint;
+import tech.hiddenproject.hic.balancer.EndpointSet;
+import tech.hiddenproject.hic.batch.PropertyReader;
+import tech.hiddenproject.hic.batch.RequestBatcher;
+import tech.hiddenproject.hic.cache.CacheKey;
+import tech.hiddenproject.hic.cache.CachedResponse;
+import tech.hiddenproject.hic.cache.ResponseCache;
 import tech.hiddenproject.hic.data.RequestMethod;
 import tech.hiddenproject.hic.data.impl.Response;
+import tech.hiddenproject.hic.data.impl.ServerSentEvent;
 import tech.hiddenproject.hic.decoder.BodyDecoder;
 import tech.hiddenproject.hic.encoder.BodyEncoder;
+import tech.hiddenproject.hic.encoder.EncodingBodyPublisher;
+import tech.hiddenproject.hic.exception.DecodeException;
 import tech.hiddenproject.hic.exception.HttpClientException;
+import tech.hiddenproject.hic.executor.SharedExecutor;
 import tech.hiddenproject.hic.handler.ClientExceptionHandler;
 import tech.hiddenproject.hic.handler.HttpHandler;
-import tech.hiddenproject.hic.util.BooleanOptional;
-import tech.hiddenproject.hic.util.IfTrueConditional;
-import tech.hiddenproject.hic.util.ObjectUtils;
+import tech.hiddenproject.hic.hedging.HedgingPolicy;
+import tech.hiddenproject.hic.jfr.CallEvent;
+import tech.hiddenproject.hic.jfr.DecodeEvent;
+import tech.hiddenproject.hic.jfr.EncodeEvent;
+import tech.hiddenproject.hic.jfr.HandlerEvent;
+import tech.hiddenproject.hic.jfr.SendEvent;
+import tech.hiddenproject.hic.limit.ConcurrencyLimiter;
+import tech.hiddenproject.hic.limit.RateLimiter;
+import tech.hiddenproject.hic.metrics.CallMetrics;
+import tech.hiddenproject.hic.metrics.MetricsListener;
+import tech.hiddenproject.hic.metrics.Phase;
+import tech.hiddenproject.hic.stream.CloseableIterator;
+import tech.hiddenproject.hic.stream.IteratorPublisher;
+import tech.hiddenproject.hic.stream.LineElementIterator;
+import tech.hiddenproject.hic.transport.Transport;
 
 /**
  * Intercepts calls to {@link WebClient} interfaces.
@@ -53,7 +83,7 @@ public class RequestInvocationInterceptor implements InvocationHandler {
 
   private static final Logger log = LoggerFactory.getLogger(RequestInvocationInterceptor.class);
 
-  private final HttpClient httpClient;
+  private final Transport transport;
 
   private final Supplier<String> baseUrl;
 
@@ -67,14 +97,65 @@ public class RequestInvocationInterceptor implements InvocationHandler {
 
   private final Map<Predicate<Integer>, HttpHandler> httpHandler;
 
+  private final Executor encodeExecutor;
+
+  private final Executor decodeExecutor;
+
+  private final ResponseCache responseCache;
+
+  private final Map<String, CompletableFuture<Object>> inFlight;
+
+  private final Map<MethodPlan, RequestBatcher> batchers = new ConcurrentHashMap<>();
+
+  private final HedgingPolicy hedgingPolicy;
+
+  private final EndpointSet endpoints;
+
+  private final Map<MethodPlan, HedgingPolicy> hedgingPolicies = new ConcurrentHashMap<>();
+
+  private final ConcurrencyLimiter concurrencyLimiter;
+
+  private final Map<MethodPlan, ConcurrencyLimiter> concurrencyLimiters =
+      new ConcurrentHashMap<>();
+
+  private final RateLimiter rateLimiter;
+
+  private final Map<String, RateLimiter> rateLimitGroups;
+
+  private final Map<MethodPlan, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
+  private final MetricsListener metricsListener;
+
+  private final MethodPlanCache methodPlans = new MethodPlanCache();
+
   public RequestInvocationInterceptor(Supplier<String> baseUrl, BodyDecoder bodyDecoder,
                                       BodyEncoder bodyEncoder,
                                       ClientExceptionHandler clientExceptionHandler,
                                       Map<String, Supplier<String>> headers,
                                       Map<Predicate<Integer>, HttpHandler> httpHandler,
-                                      HttpClient httpClient) {
+                                      Transport transport,
+                                      Executor encodeExecutor,
+                                      Executor decodeExecutor,
+                                      ResponseCache responseCache,
+                                      boolean coalesceRequests,
+                                      HedgingPolicy hedgingPolicy,
+                                      EndpointSet endpoints,
+                                      ConcurrencyLimiter concurrencyLimiter,
+                                      RateLimiter rateLimiter,
+                                      Map<String, RateLimiter> rateLimitGroups,
+                                      MetricsListener metricsListener) {
     this.baseUrl = baseUrl;
-    this.httpClient = httpClient;
+    this.metricsListener = metricsListener;
+    this.rateLimiter = rateLimiter;
+    this.rateLimitGroups = new ConcurrentHashMap<>(rateLimitGroups);
+    this.concurrencyLimiter = concurrencyLimiter;
+    this.endpoints = endpoints;
+    this.hedgingPolicy = hedgingPolicy;
+    this.responseCache = responseCache;
+    this.inFlight = coalesceRequests ? new ConcurrentHashMap<>() : null;
+    this.encodeExecutor = encodeExecutor;
+    this.decodeExecutor = decodeExecutor;
+    this.transport = transport;
     this.defaultDecoder = bodyDecoder;
     this.defaultEncoder = bodyEncoder;
     this.clientExceptionHandler = clientExceptionHandler;
@@ -84,135 +165,749 @@ public class RequestInvocationInterceptor implements InvocationHandler {
 
   @Override
   public Object invoke(Object proxy, Method method, Object[] args) {
-    Map<String, String> queryUrlParameters = collectParameters(
-        method, Query.class, args, Query::value);
-    Map<String, String> headers = collectParameters(method, Header.class, args, Header::value);
-    Map<String, String> currentHeaderSuppliers = this.headers.entrySet().stream()
-        .collect(Collectors.toMap(Entry::getKey, header -> header.getValue().get()));
-    headers.putAll(currentHeaderSuppliers);
-    Map<String, String> pathUrlParameters = collectParameters(
-        method, Path.class, args, Path::value);
-    Map<String, String> bodyParameters = collectParameters(method, Body.class, args, body -> "",
-                                                           defaultEncoder::encode
-    );
-    Map<String, MultipartData> multipartParameters = collectParameters(method, Part.class, args,
-                                                                       Part::value, this::cast
-    );
-    Map<String, String> formDataParameters = collectParameters(method, Field.class, args,
-                                                               Field::value
-    );
+    if (method.getDeclaringClass().equals(Object.class)) {
+      return invokeObjectMethod(proxy, method, args);
+    }
+    if (metricsListener == null) {
+      MethodPlan plan = methodPlans.get(method);
+      return execute(plan, plan.bind(args));
+    }
+    long start = System.nanoTime();
+    MethodPlan plan = methodPlans.get(method);
+    RequestParameters parameters = plan.bind(args);
+    CallMetrics metrics = new CallMetrics(method, start);
+    metrics.recordSince(Phase.BIND, start);
+    return execute(plan, parameters.metrics(metrics));
+  }
 
-    GET get = AnnotationProcessor.extractMethodAnnotation(method, GET.class);
-    POST post = AnnotationProcessor.extractMethodAnnotation(method, POST.class);
-    PUT put = AnnotationProcessor.extractMethodAnnotation(method, PUT.class);
-    DELETE delete = AnnotationProcessor.extractMethodAnnotation(method, DELETE.class);
-
-    BooleanOptional.of(ObjectUtils.isMoreThanNull(get, post, put, delete))
-        .ifTrueThrow(() -> new HttpClientException(
-            "More than one @GET, @POST, @PUT or @DELETE annotations found"));
-    String pathUrl = IfTrueConditional.create()
-        .ifTrue(get, Objects::nonNull).then(() -> get.value())
-        .ifTrue(post, Objects::nonNull).then(() -> post.value())
-        .ifTrue(put, Objects::nonNull).then(() -> put.value())
-        .ifTrue(delete, Objects::nonNull).then(() -> delete.value())
-        .orElse("");
-    RequestMethod requestMethod = IfTrueConditional.create()
-        .ifTrue(get, Objects::nonNull).then(RequestMethod.GET)
-        .ifTrue(post, Objects::nonNull).then(RequestMethod.POST)
-        .ifTrue(put, Objects::nonNull).then(RequestMethod.PUT)
-        .ifTrue(delete, Objects::nonNull).then(RequestMethod.DELETE)
-        .orElseThrows(() -> new HttpClientException(
-            "No @GET, @POST, @PUT or @DELETE annotations found on called method"));
-    RequestContent contentType = IfTrueConditional.create()
-        .ifTrue(get, Objects::nonNull).then(() -> get.contentType())
-        .ifTrue(post, Objects::nonNull).then(() -> post.contentType())
-        .ifTrue(put, Objects::nonNull).then(() -> put.contentType())
-        .ifTrue(delete, Objects::nonNull).then(() -> delete.contentType())
-        .orElse(RequestContent.APPLICATION_JSON);
-
-    HttpRequest httpRequest = RequestCreator.create(baseUrl.get(), pathUrl, requestMethod,
-                                                    contentType, queryUrlParameters,
-                                                    pathUrlParameters, headers, multipartParameters,
-                                                    formDataParameters,
-                                                    bodyParameters.values().stream().findFirst()
-                                                        .orElse("")
-    );
-    log.debug("Sending {} request for: {}", requestMethod, httpRequest.uri().toString());
-    return IfTrueConditional.create()
-        .ifTrue(method, this::isAsyncRequest).then(() -> sendRequestAsync(httpRequest, method))
-        .orElseGet(() -> sendRequest(httpRequest, method));
+  /**
+   * Starts measurement of {@link Phase#BIND} for implementations which bind arguments themselves.
+   *
+   * @return {@link System#nanoTime()} if calls are measured, otherwise 0
+   */
+  public long bindStart() {
+    return metricsListener == null ? 0 : System.nanoTime();
   }
 
-  private Object sendRequest(HttpRequest httpRequest, Method method) {
+  /**
+   * Same as {@link #execute(MethodPlan, RequestParameters)}, but also records {@link Phase#BIND}
+   * since {@link #bindStart()}, so generated implementations are measured like proxy.
+   *
+   * @param plan       {@link MethodPlan} of called method
+   * @param parameters Bound method parameters
+   * @param bindStart  Result of {@link #bindStart()} called before binding
+   * @return Method result
+   */
+  public Object execute(MethodPlan plan, RequestParameters parameters, long bindStart) {
+    if (metricsListener != null) {
+      CallMetrics metrics = new CallMetrics(plan.getMethod(), bindStart);
+      metrics.recordSince(Phase.BIND, bindStart);
+      parameters.metrics(metrics);
+    }
+    return execute(plan, parameters);
+  }
+
+  /**
+   * Performs request for {@link WebClient} interface method. Synchronous methods wait for result
+   * of {@link #executeAsync(MethodPlan, RequestParameters)}.
+   *
+   * @param plan       {@link MethodPlan} of called method
+   * @param parameters Bound method parameters
+   * @return Method result
+   */
+  @SuppressWarnings("unchecked")
+  public Object execute(MethodPlan plan, RequestParameters parameters) {
+    if (plan.getResponseShape() == ResponseShape.PUBLISHER) {
+      return new IteratorPublisher<>(
+          () -> executeAsync(plan, parameters).thenApply(elements -> (Iterator<Object>) elements),
+          decodeExecutor == null ? SharedExecutor.get() : decodeExecutor
+      );
+    }
+    CompletableFuture<Object> result = plan.getBatched() == null
+        ? executeAsync(plan, parameters) : executeBatched(plan, parameters);
+    if (plan.isAsync()) {
+      return result;
+    }
+    Object response = join(result);
+    if (plan.getResponseShape() == ResponseShape.STREAM) {
+      return toStream((CloseableIterator<Object>) response);
+    }
+    return response;
+  }
+
+  /**
+   * Performs request without blocking. Response goes through {@link HttpHandler}s, is decoded or
+   * wrapped into {@link Response} and failures are passed to {@link ClientExceptionHandler}.
+   *
+   * @param plan       {@link MethodPlan} of called method
+   * @param parameters Bound method parameters
+   * @return Future with method result
+   */
+  public CompletableFuture<Object> executeAsync(MethodPlan plan, RequestParameters parameters) {
+    CallEvent event = new CallEvent();
+    if (metricsListener == null && !event.isEnabled()) {
+      return request(plan, parameters);
+    }
+    event.begin();
+    if (parameters.getMetrics() == null) {
+      parameters.metrics(new CallMetrics(plan.getMethod(), System.nanoTime()));
+    }
+    CallMetrics metrics = parameters.getMetrics();
+    CompletableFuture<Object> result;
     try {
-      HttpResponse<String> httpResponse = httpClient.send(httpRequest, BodyHandlers.ofString());
-      httpHandler.entrySet().stream()
-          .filter(handler -> handler.getKey().test(httpResponse.statusCode()))
-          .forEach(handler -> handler.getValue()
-              .handler(httpResponse.statusCode(), httpResponse.body()));
-      log.info(httpResponse.body());
-      return IfTrueConditional.create()
-          .ifTrue(method, this::hasResult).then(() -> wrapResponse(httpResponse, method))
-          .orElse(null);
-    } catch (JsonSyntaxException | IOException | InterruptedException e) {
+      result = request(plan, parameters);
+    } catch (RuntimeException e) {
+      report(plan, metrics, event, e);
+      throw e;
+    }
+    return cancelOnAbandon(result, result.whenComplete(
+        (response, throwable) -> report(plan, metrics, event, throwable)));
+  }
+
+  /**
+   * Completes measurements of call, commits {@link CallEvent} and passes metrics to listener.
+   */
+  private void report(MethodPlan plan, CallMetrics metrics, CallEvent event,
+                      Throwable throwable) {
+    metrics.complete(throwable);
+    event.setStatusCode(metrics.getStatusCode());
+    event.setRequestBytes(metrics.getRequestBytes());
+    event.setResponseBytes(metrics.getResponseBytes());
+    event.commit(plan);
+    if (metricsListener == null) {
+      return;
+    }
+    try {
+      metricsListener.onCall(metrics);
+    } catch (RuntimeException e) {
+      log.warn("Metrics listener failed", e);
+    }
+  }
+
+  private CompletableFuture<Object> request(MethodPlan plan, RequestParameters parameters) {
+    CallMetrics metrics = parameters.getMetrics();
+    long headersStart = metrics == null ? 0 : System.nanoTime();
+    Map<String, String> requestHeaders = parameters.getHeaders();
+    for (Entry<String, Supplier<String>> header : headers.entrySet()) {
+      requestHeaders.put(header.getKey(), header.getValue().get());
+    }
+    if (metrics != null) {
+      metrics.recordSince(Phase.HEADERS, headersStart);
+    }
+    if (plan.getStreamFormat() != null) {
+      requestHeaders.putIfAbsent("Accept", plan.getStreamFormat().getMediaType());
+    }
+    String url = endpoints == null ? baseUrl.get() : endpoints.getName();
+
+    String cacheKey = null;
+    CachedResponse cached = null;
+    if (responseCache != null && plan.isCacheable()) {
+      cacheKey = CacheKey.of(plan.getRequestMethod().name(), plan.getUriTemplate()
+          .expand(url, parameters.getPath(), parameters.getQuery()), requestHeaders);
+      cached = responseCache.get(cacheKey);
+      if (cached != null && !cached.matches(requestHeaders)) {
+        cached = null;
+      }
+      if (cached != null && cached.isFresh(System.currentTimeMillis())) {
+        responseCache.getStats().recordHit();
+        return CompletableFuture.completedFuture(cached)
+            .thenApply(entry -> fromCache(entry, plan, metrics))
+            .exceptionally(this::handleException);
+      }
+      if (cached != null) {
+        cached.addConditionalHeaders(requestHeaders);
+      }
+    }
+
+    if (inFlight == null || plan.getRequestMethod() != RequestMethod.GET
+        || plan.isElementStream()) {
+      return send(plan, parameters, url, cacheKey, cached);
+    }
+    return coalesce(plan, parameters, url, cacheKey, cached);
+  }
+
+  /**
+   * Shares single exchange between concurrent identical GET calls. Calls are identical if they have
+   * same resolved uri, request headers and result type.
+   */
+  private CompletableFuture<Object> coalesce(MethodPlan plan, RequestParameters parameters,
+                                             String url, String cacheKey,
+                                             CachedResponse cached) {
+    String key = plan.getUriTemplate().expand(url, parameters.getPath(), parameters.getQuery())
+        + " " + new TreeMap<>(parameters.getHeaders()) + " " + plan.getResponseShape() + " "
+        + plan.getBodyType().getTypeName();
+    CompletableFuture<Object> flight = new CompletableFuture<>();
+    CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+    if (existing != null) {
+      log.debug("Joining in-flight request: {}", key);
+      return existing.thenApply(Function.identity());
+    }
+    try {
+      send(plan, parameters, url, cacheKey, cached).whenComplete((result, throwable) -> {
+        inFlight.remove(key, flight);
+        if (throwable != null) {
+          flight.completeExceptionally(throwable);
+        } else {
+          flight.complete(result);
+        }
+      });
+    } catch (RuntimeException e) {
+      inFlight.remove(key, flight);
+      flight.completeExceptionally(e);
+      throw e;
+    }
+    return flight.thenApply(Function.identity());
+  }
+
+  private CompletableFuture<Object> send(MethodPlan plan, RequestParameters parameters,
+                                         String url, String cacheKey, CachedResponse cached) {
+    BodyHandler<?> bodyHandler = bodyHandler(plan);
+    HedgingPolicy hedging = hedgingPolicy(plan);
+    Supplier<CompletableFuture<HttpResponse<?>>> exchange = hedging == null
+        ? () -> exchange(plan, parameters, url, bodyHandler)
+        : () -> hedging.execute(() -> exchange(plan, parameters, url, bodyHandler),
+                                httpResponse -> httpResponse.statusCode() < 400,
+                                httpResponse -> close(httpResponse.body())
+        );
+    CallMetrics metrics = parameters.getMetrics();
+    Supplier<CompletableFuture<HttpResponse<?>>> attempt = metrics == null
+        ? exchange : measured(metrics, exchange);
+    ConcurrencyLimiter limiter = concurrencyLimiter(plan);
+    Supplier<CompletableFuture<HttpResponse<?>>> admitted = limiter == null
+        ? attempt
+        : () -> compose(limiter.acquire(), permit -> limited(permit, attempt));
+    RateLimiter rate = rateLimiter(plan);
+    CompletableFuture<HttpResponse<?>> response = rate == null
+        ? admitted.get()
+        : compose(rate.acquireAsync(), ready -> admitted.get());
+    Function<HttpResponse<?>, Object> handler = cacheKey == null
+        ? httpResponse -> handleResponse(httpResponse, plan, metrics)
+        : httpResponse -> handleCacheable(httpResponse, plan, cacheKey, cached, metrics);
+    Executor handlerExecutor = decodeExecutor == null && readsStream(plan)
+        ? SharedExecutor.get() : decodeExecutor;
+    CompletableFuture<Object> result = handlerExecutor == null
+        ? response.thenApply(handler)
+        : response.thenApplyAsync(handler, handlerExecutor);
+    return cancelOnAbandon(response, result.exceptionally(this::handleException));
+  }
+
+  /**
+   * Same as {@link CompletableFuture#thenCompose(Function)}, but if result is completed before
+   * both futures are, like when call is abandoned, both of them are cancelled.
+   */
+  private static <T, U> CompletableFuture<U> compose(CompletableFuture<T> first,
+                                                     Function<T, CompletableFuture<U>> next) {
+    AtomicReference<CompletableFuture<U>> second = new AtomicReference<>();
+    CompletableFuture<U> result = cancelOnAbandon(first, first.thenCompose(value -> {
+      CompletableFuture<U> future = next.apply(value);
+      if (!second.compareAndSet(null, future)) {
+        future.cancel(true);
+      }
+      return future;
+    }));
+    result.whenComplete((value, throwable) -> {
+      CompletableFuture<U> future = second.getAndSet(result);
+      if (future != null && !future.isDone()) {
+        future.cancel(true);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Cancels source future if dependent one is completed first, which happens only when caller
+   * cancels call, completes it on timeout or is interrupted. So request waiting for limiter
+   * permit leaves queue and is not sent when nobody waits for its result.
+   */
+  private static <T> CompletableFuture<T> cancelOnAbandon(CompletableFuture<?> source,
+                                                      CompletableFuture<T> dependent) {
+    dependent.whenComplete((value, throwable) -> {
+      if (!source.isDone()) {
+        source.cancel(true);
+      }
+    });
+    return dependent;
+  }
+
+  /**
+   * Records time spent waiting for limiters before attempt and time until response headers.
+   */
+  private Supplier<CompletableFuture<HttpResponse<?>>> measured(
+      CallMetrics metrics, Supplier<CompletableFuture<HttpResponse<?>>> attempt) {
+    long queued = System.nanoTime();
+    return () -> {
+      long start = System.nanoTime();
+      metrics.record(Phase.WAIT, start - queued);
+      return attempt.get().whenComplete((httpResponse, throwable) -> {
+        metrics.recordSince(Phase.NETWORK, start);
+        if (httpResponse != null) {
+          metrics.response(httpResponse.statusCode(),
+                           httpResponse.headers().firstValueAsLong("Content-Length").orElse(-1));
+        }
+      });
+    };
+  }
+
+  /**
+   * Sends request holding permit of {@link ConcurrencyLimiter}. Permit is released when response
+   * headers are received, failures and 429 / 503 responses are reported as dropped requests.
+   */
+  private CompletableFuture<HttpResponse<?>> limited(ConcurrencyLimiter.Permit permit,
+                                                     Supplier<CompletableFuture<HttpResponse<?>>>
+                                                         attempt) {
+    long start = System.nanoTime();
+    CompletableFuture<HttpResponse<?>> response;
+    try {
+      response = attempt.get();
+    } catch (RuntimeException e) {
+      permit.release();
+      throw e;
+    }
+    return response.whenComplete((httpResponse, throwable) -> {
+      if (response.isCancelled()) {
+        permit.release();
+        return;
+      }
+      boolean dropped = throwable != null || httpResponse.statusCode() == 429
+          || httpResponse.statusCode() == 503;
+      permit.release(System.nanoTime() - start, dropped);
+    });
+  }
+
+  /**
+   * Resolves {@link ConcurrencyLimiter} of method: own limiter for {@link ConcurrencyLimit}
+   * methods, or limiter of client.
+   */
+  private ConcurrencyLimiter concurrencyLimiter(MethodPlan plan) {
+    if (plan.getConcurrencyLimit() != null) {
+      return concurrencyLimiters.computeIfAbsent(
+          plan, limited -> ConcurrencyLimiter.of(limited.getConcurrencyLimit()));
+    }
+    return concurrencyLimiter;
+  }
+
+  /**
+   * Resolves {@link RateLimiter} of method: bucket of its {@link RateLimit} group or own bucket
+   * for annotated methods, or limiter of client.
+   */
+  private RateLimiter rateLimiter(MethodPlan plan) {
+    RateLimit rateLimit = plan.getRateLimit();
+    if (rateLimit == null) {
+      return rateLimiter;
+    }
+    if (rateLimit.group().isEmpty()) {
+      return rateLimiters.computeIfAbsent(plan, limited -> RateLimiter.of(rateLimit));
+    }
+    return rateLimitGroups.computeIfAbsent(rateLimit.group(), group -> RateLimiter.of(rateLimit));
+  }
+
+  /**
+   * Sends single request. If client has {@link EndpointSet}, request is sent to endpoint selected
+   * for this attempt, so hedged requests may go to different endpoints.
+   */
+  private CompletableFuture<HttpResponse<?>> exchange(MethodPlan plan,
+                                                      RequestParameters parameters, String url,
+                                                      BodyHandler<?> bodyHandler) {
+    Endpoint endpoint = endpoints == null ? null : endpoints.select();
+    CallMetrics metrics = parameters.getMetrics();
+    long createStart = metrics == null ? 0 : System.nanoTime();
+    HttpRequest httpRequest;
+    try {
+      httpRequest = RequestCreator.create(endpoint == null ? url : endpoint.getUrl(),
+                                          plan.getUriTemplate(), plan.getRequestMethod(),
+                                          plan.getContentType(), parameters,
+                                          bodyPublisher(plan, parameters.getBody())
+      );
+    } catch (RuntimeException e) {
+      if (endpoint != null) {
+        endpoints.complete(endpoint, System.nanoTime(), -1, e);
+      }
+      throw e;
+    }
+    if (metrics != null) {
+      metrics.recordSince(Phase.CREATE, createStart);
+      metrics.requestBytes(httpRequest.bodyPublisher().map(BodyPublisher::contentLength)
+                               .orElse(0L));
+    }
+    log.debug("Sending {} request for: {}", plan.getRequestMethod(), httpRequest.uri());
+    SendEvent event = new SendEvent();
+    event.begin();
+    CompletableFuture<HttpResponse<?>> response = sendAsync(httpRequest, bodyHandler);
+    if (event.isEnabled()) {
+      event.setRequestBytes(httpRequest.bodyPublisher().map(BodyPublisher::contentLength)
+                                .orElse(0L));
+      response.whenComplete((httpResponse, throwable) -> {
+        if (httpResponse != null) {
+          event.setStatusCode(httpResponse.statusCode());
+          event.setResponseBytes(
+              httpResponse.headers().firstValueAsLong("Content-Length").orElse(-1));
+        }
+        event.commit(plan);
+      });
+    }
+    if (endpoint == null) {
+      return response;
+    }
+    long start = System.nanoTime();
+    CompletableFuture<HttpResponse<?>> tracked = response.whenComplete(
+        (httpResponse, throwable) -> endpoints.complete(
+            endpoint, start, httpResponse == null ? -1 : httpResponse.statusCode(), throwable));
+    tracked.whenComplete((httpResponse, throwable) -> {
+      if (tracked.isCancelled()) {
+        response.cancel(true);
+      }
+    });
+    return tracked;
+  }
+
+  /**
+   * Adds call of {@link Batched} method to batch of its bulk method. Keys joined with comma must
+   * not contain comma themselves, as they can't be split back.
+   */
+  private CompletableFuture<Object> executeBatched(MethodPlan plan, RequestParameters parameters) {
+    Object value = parameters.getBatchKey();
+    if (value == null) {
+      return executeAsync(plan, parameters);
+    }
+    String key = value.toString();
+    if (plan.isBatchKeysJoined() && key.contains(",")) {
+      return CompletableFuture.failedFuture(new HttpClientException(
+          "Key of @Batched call is joined with comma and must not contain it: " + key));
+    }
+    return batchers.computeIfAbsent(plan, this::batcher).add(key);
+  }
+
+  private RequestBatcher batcher(MethodPlan plan) {
+    Batched batched = plan.getBatched();
+    MethodPlan bulkPlan = methodPlans.get(plan.getBatchMethod());
+    boolean joinKeys = plan.isBatchKeysJoined();
+    return new RequestBatcher(batched.maxSize(), batched.maxDelay(), keys -> {
+      RequestParameters bulkParameters = bulkPlan.parameters();
+      bulkPlan.bind(bulkParameters, 0, joinKeys ? String.join(",", keys) : keys);
+      return executeAsync(bulkPlan, bulkParameters);
+    }, new PropertyReader(batched.key()));
+  }
+
+  @SuppressWarnings("unchecked")
+  private CompletableFuture<HttpResponse<?>> sendAsync(HttpRequest httpRequest,
+                                                       BodyHandler<?> bodyHandler) {
+    return (CompletableFuture<HttpResponse<?>>) (CompletableFuture<?>) transport.send(
+        httpRequest, bodyHandler);
+  }
+
+  /**
+   * Resolves {@link HedgingPolicy} of method: own policy for {@link Hedged} methods, or client
+   * policy for other idempotent methods.
+   */
+  private HedgingPolicy hedgingPolicy(MethodPlan plan) {
+    if (plan.getHedged() != null) {
+      return hedgingPolicies.computeIfAbsent(plan, hedged -> HedgingPolicy.of(hedged.getHedged()));
+    }
+    if (hedgingPolicy != null && plan.isIdempotent() && !plan.isElementStream()) {
+      return hedgingPolicy;
+    }
+    return null;
+  }
+
+  private BodyPublisher bodyPublisher(MethodPlan plan, Object body) {
+    if (body == null) {
+      return null;
+    }
+    if (defaultEncoder.isStreaming()) {
+      return new EncodingBodyPublisher(defaultEncoder, body, encodeExecutor);
+    }
+    EncodeEvent event = new EncodeEvent();
+    event.begin();
+    BodyPublisher publisher = BodyPublishers.ofString(defaultEncoder.encode(body));
+    event.setRequestBytes(publisher.contentLength());
+    event.commit(plan);
+    return publisher;
+  }
+
+  private Object join(CompletableFuture<Object> result) {
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      result.cancel(true);
       clientExceptionHandler.handle(e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new HttpClientException(cause);
     }
     return null;
   }
 
-  private CompletableFuture sendRequestAsync(HttpRequest httpRequest, Method method) {
-    Type genericType = ((ParameterizedType) method.getGenericReturnType())
-        .getActualTypeArguments()[0];
-    return httpClient.sendAsync(httpRequest, BodyHandlers.ofString())
-        .thenApply(HttpResponse::body)
-        .thenApply(body -> defaultDecoder.decode(body, genericType));
+  /**
+   * Passes client failures to {@link ClientExceptionHandler}. If handler doesn't throw, method
+   * returns null as its result.
+   */
+  private Object handleException(Throwable throwable) {
+    Throwable cause = throwable;
+    while ((cause instanceof CompletionException || cause instanceof UncheckedIOException)
+        && cause.getCause() != null) {
+      cause = cause.getCause();
+    }
+    if (cause instanceof IOException || cause instanceof JsonParseException
+        || cause instanceof DecodeException) {
+      clientExceptionHandler.handle(cause);
+      return null;
+    }
+    if (cause instanceof RuntimeException) {
+      throw (RuntimeException) cause;
+    }
+    throw new CompletionException(cause);
+  }
+
+  private BodyHandler<?> bodyHandler(MethodPlan plan) {
+    if (plan.getStreamFormat() != null) {
+      return BodyHandlers.ofLines();
+    }
+    return readsStream(plan) ? BodyHandlers.ofInputStream() : BodyHandlers.ofString();
+  }
+
+  /**
+   * @return true if response body is read from {@link InputStream}, so handling it blocks until
+   * body is received and must not run on thread which completed request
+   */
+  private boolean readsStream(MethodPlan plan) {
+    if (plan.getStreamFormat() != null || (responseCache != null && plan.isCacheable())) {
+      return false;
+    }
+    return defaultDecoder.isStreaming() || plan.isElementStream();
+  }
+
+  private Stream<Object> toStream(CloseableIterator<Object> elements) {
+    if (elements == null) {
+      return Stream.empty();
+    }
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(elements, Spliterator.ORDERED),
+                                false
+    ).onClose(elements::close);
+  }
+
+  private Object handleResponse(HttpResponse<?> httpResponse, MethodPlan plan,
+                                CallMetrics metrics) {
+    if (plan.isElementStream()) {
+      return handleElements(httpResponse, plan);
+    }
+    int statusCode = httpResponse.statusCode();
+    Object body = httpResponse.body();
+    try {
+      String rawBody = body instanceof String ? (String) body : null;
+      if (rawBody == null && isRawBodyRequired(statusCode, plan)) {
+        rawBody = new String(((InputStream) body).readAllBytes(), StandardCharsets.UTF_8);
+      }
+      long handlerStart = metrics == null ? 0 : System.nanoTime();
+      HandlerEvent handlerEvent = new HandlerEvent();
+      handlerEvent.begin();
+      for (Entry<Predicate<Integer>, HttpHandler> handler : httpHandler.entrySet()) {
+        if (handler.getKey().test(statusCode)) {
+          handler.getValue().handler(statusCode, rawBody);
+        }
+      }
+      handlerEvent.setStatusCode(statusCode);
+      handlerEvent.commit(plan);
+      if (metrics != null) {
+        metrics.recordSince(Phase.HANDLER, handlerStart);
+      }
+      if (body instanceof String) {
+        log.info(rawBody);
+      }
+      if (plan.getResponseShape() == ResponseShape.VOID) {
+        return null;
+      }
+      long decodeStart = metrics == null ? 0 : System.nanoTime();
+      DecodeEvent decodeEvent = new DecodeEvent();
+      decodeEvent.begin();
+      Object response = Response.isError(statusCode) ? null
+          : decodeBody(rawBody != null ? rawBody : body, plan.getBodyType());
+      decodeEvent.setStatusCode(statusCode);
+      decodeEvent.setResponseBytes(
+          httpResponse.headers().firstValueAsLong("Content-Length").orElse(-1));
+      decodeEvent.commit(plan);
+      if (metrics != null) {
+        metrics.recordSince(Phase.DECODE, decodeStart);
+      }
+      if (plan.getResponseShape() == ResponseShape.WRAPPED) {
+        return Response.create(response, statusCode, rawBody);
+      }
+      return response;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      close(body);
+    }
+  }
+
+  /**
+   * Serves 304 Not Modified from stored response and stores new cacheable responses.
+   */
+  private Object handleCacheable(HttpResponse<?> httpResponse, MethodPlan plan, String key,
+                                 CachedResponse cached, CallMetrics metrics) {
+    long now = System.currentTimeMillis();
+    if (httpResponse.statusCode() == 304 && cached != null) {
+      responseCache.getStats().recordRevalidation();
+      CachedResponse revalidated = cached.revalidated(httpResponse.headers(), now);
+      responseCache.put(key, revalidated);
+      return fromCache(revalidated, plan, metrics);
+    }
+    responseCache.getStats().recordMiss();
+    Object response = handleResponse(httpResponse, plan, metrics);
+    CachedResponse entry = CachedResponse.of(httpResponse.statusCode(), httpResponse.headers(),
+                                             (String) httpResponse.body(),
+                                             requestHeaders(httpResponse), now
+    );
+    if (entry == null) {
+      if (httpResponse.statusCode() == 200) {
+        responseCache.remove(key);
+      }
+      return response;
+    }
+    if (plan.isCacheDecoded()) {
+      entry.setDecoded(plan.getBodyType(),
+                       response instanceof Response ? ((Response<?>) response).get() : response
+      );
+    }
+    responseCache.put(key, entry);
+    return response;
   }
 
-  private boolean isAsyncRequest(Method method) {
-    return method.getReturnType().equals(CompletableFuture.class);
+  private static Map<String, String> requestHeaders(HttpResponse<?> httpResponse) {
+    return httpResponse.request().headers().map().entrySet().stream()
+        .collect(Collectors.toMap(Entry::getKey, header -> String.join(",", header.getValue())));
   }
 
-  private boolean hasResult(Method method) {
-    return !method.getReturnType().equals(void.class);
+  private Object fromCache(CachedResponse cached, MethodPlan plan, CallMetrics metrics) {
+    Object decoded = cached.getDecoded(plan.getBodyType());
+    String rawBody = null;
+    if (decoded == null || plan.getResponseShape() == ResponseShape.WRAPPED) {
+      rawBody = cached.getBody();
+    }
+    if (decoded == null) {
+      long decodeStart = metrics == null ? 0 : System.nanoTime();
+      DecodeEvent decodeEvent = new DecodeEvent();
+      decodeEvent.begin();
+      decoded = defaultDecoder.decode(rawBody, plan.getBodyType());
+      decodeEvent.setStatusCode(cached.getStatusCode());
+      decodeEvent.commit(plan);
+      if (metrics != null) {
+        metrics.recordSince(Phase.DECODE, decodeStart);
+      }
+      if (plan.isCacheDecoded()) {
+        cached.setDecoded(plan.getBodyType(), decoded);
+      }
+    }
+    if (plan.getResponseShape() == ResponseShape.WRAPPED) {
+      return Response.create(decoded, cached.getStatusCode(), rawBody);
+    }
+    return decoded;
   }
 
-  private boolean isWrapped(Method method) {
-    return method.getReturnType().equals(Response.class);
+  /**
+   * Starts lazy decoding of response elements. Body is passed to {@link HttpHandler}s only for
+   * error responses, successful body is left to be read element by element.
+   */
+  private CloseableIterator<Object> handleElements(HttpResponse<?> httpResponse,
+                                                   MethodPlan plan) {
+    int statusCode = httpResponse.statusCode();
+    Object body = httpResponse.body();
+    try {
+      boolean isError = Response.isError(statusCode);
+      String rawBody = isError && isRawBodyRequired(statusCode, plan) ? readRaw(body) : null;
+      for (Entry<Predicate<Integer>, HttpHandler> handler : httpHandler.entrySet()) {
+        if (handler.getKey().test(statusCode)) {
+          handler.getValue().handler(statusCode, rawBody);
+        }
+      }
+      if (isError) {
+        close(body);
+        return new CloseableIterator<>(Collections.emptyIterator(), () -> {
+        });
+      }
+      return elements(body, plan);
+    } catch (IOException e) {
+      close(body);
+      throw new UncheckedIOException(e);
+    } catch (RuntimeException e) {
+      close(body);
+      throw e;
+    }
   }
 
-  private Object wrapResponse(HttpResponse<String> httpResponse, Method method) {
-    if (isWrapped(method)) {
-      Type genericType = ((ParameterizedType) method.getGenericReturnType()).getActualTypeArguments()[0];
-      Object response = Response.isError(httpResponse.statusCode()) ? null
-          : defaultDecoder.decode(httpResponse.body(), genericType);
-      return Response.create(response, httpResponse.statusCode(), httpResponse.body());
+  @SuppressWarnings("unchecked")
+  private CloseableIterator<Object> elements(Object body, MethodPlan plan) {
+    Type type = plan.getBodyType();
+    if (plan.getStreamFormat() == null) {
+      InputStream stream = (InputStream) body;
+      return new CloseableIterator<>(defaultDecoder.decodeElements(stream, type), stream);
     }
-    return Response.isError(httpResponse.statusCode()) ? null
-        : defaultDecoder.decode(httpResponse.body(), method.getReturnType());
+    Stream<String> lines = (Stream<String>) body;
+    Function<ServerSentEvent, Object> decoder = ServerSentEvent.class.equals(type)
+        ? event -> event : event -> defaultDecoder.decode(event.data(), type);
+    return new CloseableIterator<>(
+        new LineElementIterator<>(lines.iterator(), plan.getStreamFormat(), decoder),
+        lines::close
+    );
   }
 
-  private <T extends Annotation, V> Map<String, V> collectParameters(Method method,
-                                                                     Class<T> annotationClass,
-                                                                     Object[] args,
-                                                                     Function<T, String> keyExtractor,
-                                                                     Function<Object, V> valueExtractor) {
-    Map<T, Object> parameters = AnnotationProcessor.extractMethodParametersWithAnnotation(
-        method, annotationClass, args);
-    return parameters.entrySet().stream()
-        .collect(Collectors.toMap(
-            entry -> keyExtractor.apply(entry.getKey()),
-            entry -> valueExtractor.apply(entry.getValue())
-        ));
+  @SuppressWarnings("unchecked")
+  private String readRaw(Object body) throws IOException {
+    if (body instanceof Stream) {
+      return ((Stream<String>) body).collect(Collectors.joining("\n"));
+    }
+    return new String(((InputStream) body).readAllBytes(), StandardCharsets.UTF_8);
   }
 
-  private <T extends Annotation> Map<String, String> collectParameters(Method method,
-                                                                       Class<T> annotationClass,
-                                                                       Object[] args,
-                                                                       Function<T, String> keyExtractor) {
-    return collectParameters(method, annotationClass, args, keyExtractor, Object::toString);
+  /**
+   * Checks if response must be read into string, because it is needed by {@link Response} or
+   * {@link HttpHandler}.
+   */
+  private boolean isRawBodyRequired(int statusCode, MethodPlan plan) {
+    if (plan.getResponseShape() == ResponseShape.WRAPPED) {
+      return true;
+    }
+    for (Predicate<Integer> statusCodePredicate : httpHandler.keySet()) {
+      if (statusCodePredicate.test(statusCode)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Object decodeBody(Object body, Type type) {
+    if (body instanceof InputStream) {
+      return defaultDecoder.decode((InputStream) body, type);
+    }
+    return defaultDecoder.decode((String) body, type);
   }
 
-  private <T> T cast(Object obj) {
-    return (T) obj;
+  private void close(Object body) {
+    if (body instanceof Stream) {
+      ((Stream<?>) body).close();
+    } else if (body instanceof InputStream) {
+      try {
+        ((InputStream) body).close();
+      } catch (IOException e) {
+        log.debug("Failed to close response body", e);
+      }
+    }
+  }
+
+  private Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+    switch (method.getName()) {
+      case "equals":
+        return proxy == args[0];
+      case "hashCode":
+        return System.identityHashCode(proxy);
+      default:
+        return proxy.getClass().getName() + "@" + Integer.toHexString(
+            System.identityHashCode(proxy));
+    }
   }
 }
@@ -0,0 +1,164 @@
+package tech.hiddenproject.hic;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import tech.hiddenproject.hic.data.MultipartData;
+import tech.hiddenproject.hic.metrics.CallMetrics;
+
+/**
+ * Holds values of {@link WebClient} interface method parameters for a single call.
+ *
+ * @author Danila Rassokhin
+ */
+public class RequestParameters {
+
+  private final List<String> query = new ArrayList<>();
+
+  private final String[] path;
+
+  private final Map<String, String> headers = new HashMap<>();
+
+  private final Map<String, MultipartData> multipart = new HashMap<>();
+
+  private final Map<String, String> form = new HashMap<>();
+
+  private Object body;
+
+  private CallMetrics metrics;
+
+  private Object batchKey;
+
+  /**
+   * @param pathVariables Count of path variables in {@link UriTemplate}
+   */
+  public RequestParameters(int pathVariables) {
+    this.path = new String[pathVariables];
+  }
+
+  /**
+   * Adds query parameter. Collections and arrays are added as repeated parameter.
+   *
+   * @param name  Parameter name
+   * @param value Parameter value
+   * @return {@link RequestParameters}
+   */
+  public RequestParameters query(String name, Object value) {
+    if (value instanceof Iterable) {
+      for (Object element : (Iterable<?>) value) {
+        query(name, element);
+      }
+    } else if (value != null && value.getClass().isArray()) {
+      for (int i = 0; i < Array.getLength(value); i++) {
+        query(name, Array.get(value, i));
+      }
+    } else if (value != null) {
+      query.add(name);
+      query.add(value.toString());
+    }
+    return this;
+  }
+
+  /**
+   * Sets path variable.
+   *
+   * @param index Variable index in {@link UriTemplate}
+   * @param value Variable value
+   * @return {@link RequestParameters}
+   */
+  public RequestParameters path(int index, Object value) {
+    if (value != null) {
+      path[index] = value.toString();
+    }
+    return this;
+  }
+
+  public RequestParameters header(String name, Object value) {
+    if (value != null) {
+      headers.put(name, value.toString());
+    }
+    return this;
+  }
+
+  public RequestParameters part(String name, MultipartData value) {
+    if (value != null) {
+      multipart.put(name, value);
+    }
+    return this;
+  }
+
+  public RequestParameters field(String name, Object value) {
+    if (value != null) {
+      form.put(name, value.toString());
+    }
+    return this;
+  }
+
+  public RequestParameters body(Object value) {
+    this.body = value;
+    return this;
+  }
+
+  /**
+   * Sets key of {@link tech.hiddenproject.hic.annotation.Batched} method call.
+   *
+   * @param value Value of key parameter
+   * @return {@link RequestParameters}
+   */
+  public RequestParameters batchKey(Object value) {
+    this.batchKey = value;
+    return this;
+  }
+
+  /**
+   * Attaches measurements of call, only when client has
+   * {@link tech.hiddenproject.hic.metrics.MetricsListener}.
+   *
+   * @param metrics {@link CallMetrics}
+   * @return {@link RequestParameters}
+   */
+  public RequestParameters metrics(CallMetrics metrics) {
+    this.metrics = metrics;
+    return this;
+  }
+
+  /**
+   * @return Query parameters as sequence of name and value pairs
+   */
+  public List<String> getQuery() {
+    return query;
+  }
+
+  public Object getBatchKey() {
+    return batchKey;
+  }
+
+  public String[] getPath() {
+    return path;
+  }
+
+  public Map<String, String> getHeaders() {
+    return headers;
+  }
+
+  public Map<String, MultipartData> getMultipart() {
+    return multipart;
+  }
+
+  public Map<String, String> getForm() {
+    return form;
+  }
+
+  public Object getBody() {
+    return body;
+  }
+
+  /**
+   * @return {@link CallMetrics} of call or null if metrics are disabled
+   */
+  public CallMetrics getMetrics() {
+    return metrics;
+  }
+}
@@ -0,0 +1,178 @@
+package tech.hiddenproject.hic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import tech.hiddenproject.hic.exception.HttpClientException;
+
+/**
+ * Compiled resource path template like {@code /book/{id}}. Template is split into literal and
+ * variable segments once, so expanding it is a single pass into one {@link StringBuilder}.
+ *
+ * @author Danila Rassokhin
+ */
+public class UriTemplate {
+
+  private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+  private final String template;
+
+  private final String[] literals;
+
+  private final int[] variables;
+
+  private final String[] names;
+
+  private final int literalLength;
+
+  private final boolean hasQuery;
+
+  private UriTemplate(String template, String[] literals, int[] variables, String[] names) {
+    this.template = template;
+    this.literals = literals;
+    this.variables = variables;
+    this.names = names;
+    int length = 0;
+    for (String literal : literals) {
+      length += literal.length();
+    }
+    this.literalLength = length;
+    this.hasQuery = template.indexOf('?') != -1;
+  }
+
+  /**
+   * Compiles path template.
+   *
+   * @param template Resource path with variables in curly braces
+   * @return {@link UriTemplate}
+   */
+  public static UriTemplate compile(String template) {
+    List<String> literals = new ArrayList<>();
+    List<Integer> variables = new ArrayList<>();
+    List<String> names = new ArrayList<>();
+    int position = 0;
+    while (true) {
+      int start = template.indexOf('{', position);
+      int end = start == -1 ? -1 : template.indexOf('}', start);
+      if (end == -1) {
+        literals.add(template.substring(position));
+        break;
+      }
+      literals.add(template.substring(position, start));
+      String name = template.substring(start + 1, end);
+      int index = names.indexOf(name);
+      if (index == -1) {
+        index = names.size();
+        names.add(name);
+      }
+      variables.add(index);
+      position = end + 1;
+    }
+    return new UriTemplate(template, literals.toArray(new String[0]),
+                           variables.stream().mapToInt(Integer::intValue).toArray(),
+                           names.toArray(new String[0])
+    );
+  }
+
+  /**
+   * Percent-encodes value as UTF-8, leaving only unreserved characters as is.
+   *
+   * @param builder Builder to append encoded value to
+   * @param value   Value to encode
+   */
+  public static void appendEncoded(StringBuilder builder, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (isUnreserved(c)) {
+        builder.append(c);
+      } else if (c < 0x80) {
+        appendByte(builder, c);
+      } else {
+        int end = Character.isHighSurrogate(c) && i + 1 < value.length() ? i + 2 : i + 1;
+        for (byte b : value.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+          appendByte(builder, b);
+        }
+        i = end - 1;
+      }
+    }
+  }
+
+  private static boolean isUnreserved(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+        || c == '-' || c == '.' || c == '_' || c == '~';
+  }
+
+  private static void appendByte(StringBuilder builder, int b) {
+    builder.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+  }
+
+  /**
+   * Expands template into full url.
+   *
+   * @param baseUrl    Base url
+   * @param pathValues Values of path variables in order of {@link #indexOf(String)}
+   * @param query      Query parameters as sequence of name and value pairs
+   * @return Url with encoded path variables and query parameters
+   */
+  public String expand(String baseUrl, String[] pathValues, List<String> query) {
+    int size = baseUrl.length() + literalLength;
+    for (String value : pathValues) {
+      size += value == null ? 0 : value.length();
+    }
+    for (String part : query) {
+      size += part.length() + 1;
+    }
+    StringBuilder builder = new StringBuilder(size + (size >> 3));
+    builder.append(baseUrl);
+    for (int i = 0; i < variables.length; i++) {
+      builder.append(literals[i]);
+      String value = pathValues[variables[i]];
+      if (value == null) {
+        throw new HttpClientException("Path parameter '" + names[variables[i]] + "' is not set");
+      }
+      appendEncoded(builder, value);
+    }
+    builder.append(literals[variables.length]);
+    boolean first = !hasQuery;
+    for (int i = 0; i < query.size(); i += 2) {
+      builder.append(first ? '?' : '&');
+      appendEncoded(builder, query.get(i));
+      builder.append('=');
+      appendEncoded(builder, query.get(i + 1));
+      first = false;
+    }
+    return builder.toString();
+  }
+
+  /**
+   * @param name Path variable name
+   * @return Index of variable or -1 if template has no such variable
+   */
+  public int indexOf(String name) {
+    for (int i = 0; i < names.length; i++) {
+      if (names[i].equals(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @return Count of distinct path variables
+   */
+  public int variableCount() {
+    return names.length;
+  }
+
+  /**
+   * @return Source template
+   */
+  public String getTemplate() {
+    return template;
+  }
+
+  @Override
+  public String toString() {
+    return template;
+  }
+}
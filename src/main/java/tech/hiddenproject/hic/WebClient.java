@@ -1,25 +1,48 @@
 package tech.hiddenproject.hic;
 
-import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Proxy;
 import java.net.http.HttpClient;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.hiddenproject.hic.annotation.Cacheable;
+import tech.hiddenproject.hic.annotation.ConcurrencyLimit;
+import tech.hiddenproject.hic.annotation.Hedged;
+import tech.hiddenproject.hic.annotation.RateLimit;
+import tech.hiddenproject.hic.balancer.EndpointSet;
+import tech.hiddenproject.hic.bytecode.RuntimeClientGenerator;
+import tech.hiddenproject.hic.cache.LruResponseCache;
+import tech.hiddenproject.hic.cache.ResponseCache;
+import tech.hiddenproject.hic.data.ClientImplementation;
 import tech.hiddenproject.hic.decoder.BodyDecoder;
 import tech.hiddenproject.hic.decoder.impl.JSONBodyDecoder;
 import tech.hiddenproject.hic.encoder.BodyEncoder;
 import tech.hiddenproject.hic.encoder.impl.JSONBodyEncoder;
+import tech.hiddenproject.hic.executor.VirtualThreads;
+import tech.hiddenproject.hic.exception.HttpClientException;
 import tech.hiddenproject.hic.handler.ClientExceptionHandler;
 import tech.hiddenproject.hic.handler.HttpHandler;
 import tech.hiddenproject.hic.handler.impl.DefaultExceptionHandler;
+import tech.hiddenproject.hic.hedging.HedgingPolicy;
+import tech.hiddenproject.hic.limit.ConcurrencyLimiter;
+import tech.hiddenproject.hic.limit.RateLimiter;
+import tech.hiddenproject.hic.metrics.MetricsListener;
+import tech.hiddenproject.hic.processor.WebClientProcessor;
+import tech.hiddenproject.hic.transport.HttpClientTransport;
+import tech.hiddenproject.hic.transport.Transport;
 
 /**
  * @author Danila Rassokhin
  */
 public class WebClient<T> {
 
+  private static final Logger log = LoggerFactory.getLogger(WebClient.class);
+
   private final Class<T> clientClass;
 
   private final Map<String, Supplier<String>> headers = new HashMap<>();
@@ -34,7 +57,33 @@ public class WebClient<T> {
 
   private ClientExceptionHandler clientExceptionHandler = new DefaultExceptionHandler();
 
-  private HttpClient httpClient = HttpClient.newBuilder().build();
+  private HttpClient httpClient;
+
+  private Transport transport;
+
+  private ClientImplementation implementation = ClientImplementation.PROXY;
+
+  private Executor encodeExecutor;
+
+  private Executor decodeExecutor;
+
+  private boolean virtualThreads;
+
+  private ResponseCache responseCache;
+
+  private boolean coalesceRequests;
+
+  private HedgingPolicy hedgingPolicy;
+
+  private EndpointSet endpoints;
+
+  private ConcurrencyLimiter concurrencyLimiter;
+
+  private RateLimiter rateLimiter;
+
+  private final Map<String, RateLimiter> rateLimitGroups = new HashMap<>();
+
+  private MetricsListener metricsListener;
 
   private WebClient(Class<T> clientClass) {
     this.clientClass = clientClass;
@@ -144,7 +193,8 @@ public class WebClient<T> {
   }
 
   /**
-   * Sets {@link HttpClient} to send requests.
+   * Sets {@link HttpClient} to send requests. Can't be used together with
+   * {@link #transport(Transport)}.
    *
    * @param httpClient {@link HttpClient}
    * @return WebClient builder
@@ -155,18 +205,262 @@ public class WebClient<T> {
   }
 
   /**
+   * Sets {@link Transport} to send requests instead of {@link HttpClient}, like
+   * {@link tech.hiddenproject.hic.transport.InMemoryTransport} to run client without network.
+   * Can't be used together with {@link #httpClient(HttpClient)}, and {@link #virtualThreads()}
+   * then applies only to encoding and decoding.
+   *
+   * @param transport {@link Transport}
+   * @return WebClient builder
+   */
+  public WebClient<T> transport(Transport transport) {
+    this.transport = transport;
+    return this;
+  }
+
+  /**
+   * Sets executor to encode request bodies on, if {@link BodyEncoder#isStreaming()} is true.
+   *
+   * @param encodeExecutor Executor for body encoding
+   * @return WebClient builder
+   */
+  public WebClient<T> encodeExecutor(Executor encodeExecutor) {
+    this.encodeExecutor = encodeExecutor;
+    return this;
+  }
+
+  /**
+   * Sets executor to decode responses and call {@link HttpHandler}s on. By default, responses
+   * read from stream are handled on {@link tech.hiddenproject.hic.executor.SharedExecutor}, as
+   * reading blocks until body is received, and buffered responses are handled on thread which
+   * completed {@link HttpClient} request. Wrap executor into
+   * {@link tech.hiddenproject.hic.executor.MonitoredExecutor} to observe queue depth and decode
+   * time.
+   *
+   * @param decodeExecutor Executor for response decoding
+   * @return WebClient builder
+   */
+  public WebClient<T> decodeExecutor(Executor decodeExecutor) {
+    this.decodeExecutor = decodeExecutor;
+    return this;
+  }
+
+  /**
+   * Runs client work on virtual threads when running on Java 21+: default {@link HttpClient},
+   * request body encoding and response decoding, unless other executors are set. Has no effect on
+   * older Java versions.
+   *
+   * @return WebClient builder
+   */
+  public WebClient<T> virtualThreads() {
+    this.virtualThreads = true;
+    return this;
+  }
+
+  /**
+   * Sets cache for responses of {@link Cacheable} methods. Responses are stored per caller, see
+   * {@link tech.hiddenproject.hic.cache.CacheKey}, and are served only to requests with the same
+   * values of headers named by {@code Vary}. Responses with {@code Cache-Control: private} or
+   * {@code Vary: *} are not stored.
+   *
+   * @param responseCache {@link ResponseCache}, for example {@link LruResponseCache}
+   * @return WebClient builder
+   */
+  public WebClient<T> responseCache(ResponseCache responseCache) {
+    this.responseCache = responseCache;
+    return this;
+  }
+
+  /**
+   * Makes concurrent identical GET calls share single request. Calls are identical if they have
+   * same resolved uri, headers and result type. All callers get the same decoded object, so it
+   * must not be modified.
+   *
+   * @return WebClient builder
+   */
+  public WebClient<T> coalesceRequests() {
+    this.coalesceRequests = true;
+    return this;
+  }
+
+  /**
+   * Spreads requests over several server replicas instead of single base url.
+   *
+   * @param endpoints {@link EndpointSet}
+   * @return WebClient builder
+   */
+  public WebClient<T> endpoints(EndpointSet endpoints) {
+    this.endpoints = endpoints;
+    return this;
+  }
+
+  /**
+   * Limits count of requests in progress of all methods, which are not annotated with
+   * {@link ConcurrencyLimit}. Requests over limit wait in limiter queue or fail with
+   * {@link tech.hiddenproject.hic.exception.LimitExceededException}.
+   *
+   * @param concurrencyLimiter {@link ConcurrencyLimiter}
+   * @return WebClient builder
+   */
+  public WebClient<T> concurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+    this.concurrencyLimiter = concurrencyLimiter;
+    return this;
+  }
+
+  /**
+   * Limits rate of requests of all methods, which are not annotated with {@link RateLimit}.
+   *
+   * @param rateLimiter {@link RateLimiter}
+   * @return WebClient builder
+   */
+  public WebClient<T> rateLimiter(RateLimiter rateLimiter) {
+    this.rateLimiter = rateLimiter;
+    return this;
+  }
+
+  /**
+   * Registers {@link RateLimiter} of quota group used by {@link RateLimit} methods. The same limiter
+   * can be registered on several clients to share quota between them.
+   *
+   * @param group       {@link RateLimit#group()}
+   * @param rateLimiter {@link RateLimiter}
+   * @return WebClient builder
+   */
+  public WebClient<T> rateLimiter(String group, RateLimiter rateLimiter) {
+    rateLimitGroups.put(group, rateLimiter);
+    return this;
+  }
+
+  /**
+   * Sets listener which receives timings of call phases, status code and payload sizes of each
+   * call. Without listener calls are not measured.
+   *
+   * @param metricsListener {@link MetricsListener}, like
+   *                        {@link tech.hiddenproject.hic.metrics.HistogramMetricsListener}
+   * @return WebClient builder
+   */
+  public WebClient<T> metrics(MetricsListener metricsListener) {
+    this.metricsListener = metricsListener;
+    return this;
+  }
+
+  /**
+   * Sets {@link HedgingPolicy} for all GET, PUT and DELETE methods, which are not annotated with
+   * {@link Hedged}. Methods share policy, so its delay percentile is observed over all of them.
+   *
+   * @param hedgingPolicy {@link HedgingPolicy}
+   * @return WebClient builder
+   */
+  public WebClient<T> hedging(HedgingPolicy hedgingPolicy) {
+    this.hedgingPolicy = hedgingPolicy;
+    return this;
+  }
+
+  /**
+   * Sets how client interface is implemented if there is no implementation generated by
+   * {@link WebClientProcessor}.
+   *
+   * @param implementation {@link ClientImplementation}
+   * @return WebClient builder
+   */
+  public WebClient<T> implementation(ClientImplementation implementation) {
+    this.implementation = implementation;
+    return this;
+  }
+
+  /**
+   * Creates client. Uses implementation generated by {@link WebClientProcessor} if it exists,
+   * otherwise creates implementation according to {@link ClientImplementation}.
+   *
    * @return WebClient instance
    */
   @SuppressWarnings("unchecked")
   public T create() {
+    RequestInvocationInterceptor interceptor = getDefaultHandler();
+    T generated = createGenerated(interceptor);
+    if (generated != null) {
+      return generated;
+    }
+    if (implementation == ClientImplementation.RUNTIME_GENERATED
+        && RuntimeClientGenerator.isAvailable()) {
+      try {
+        return RuntimeClientGenerator.create(clientClass, interceptor);
+      } catch (RuntimeException e) {
+        log.warn("Failed to generate implementation for {}, using proxy", clientClass, e);
+      }
+    }
     return (T) Proxy.newProxyInstance(clientClass.getClassLoader(), new Class[]{clientClass},
-                                      getDefaultHandler()
+                                      interceptor
     );
   }
 
-  private InvocationHandler getDefaultHandler() {
+  /**
+   * Creates instance of generated implementation. Its method plans are built in constructor, so
+   * invalid method declaration fails here with {@link HttpClientException}, like for proxy.
+   */
+  private T createGenerated(RequestInvocationInterceptor interceptor) {
+    Class<?> implementation;
+    try {
+      implementation = Class.forName(clientClass.getName() + WebClientProcessor.SUFFIX, true,
+                                     clientClass.getClassLoader()
+      );
+    } catch (ClassNotFoundException e) {
+      return null;
+    }
+    if (!clientClass.isAssignableFrom(implementation)) {
+      return null;
+    }
+    try {
+      return clientClass.cast(implementation.getConstructor(RequestInvocationInterceptor.class)
+                                  .newInstance(interceptor));
+    } catch (NoSuchMethodException e) {
+      return null;
+    } catch (InvocationTargetException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new HttpClientException(e.getCause());
+    } catch (ReflectiveOperationException e) {
+      throw new HttpClientException(e);
+    }
+  }
+
+  private RequestInvocationInterceptor getDefaultHandler() {
+    Executor virtualExecutor = null;
+    if (virtualThreads) {
+      virtualExecutor = VirtualThreads.newVirtualThreadPerTaskExecutor().orElse(null);
+      if (virtualExecutor == null) {
+        log.warn("Virtual threads are not supported by current JVM, using platform threads");
+      }
+    }
+    if (transport != null && httpClient != null) {
+      throw new HttpClientException("Both HttpClient and Transport are set, use only one of them");
+    }
+    if (transport != null && virtualExecutor != null) {
+      log.warn("Transport is set, virtual threads are used only for encoding and decoding");
+    }
+    Transport clientTransport = transport;
+    if (clientTransport == null) {
+      HttpClient client = httpClient;
+      if (client == null) {
+        HttpClient.Builder builder = HttpClient.newBuilder();
+        if (virtualExecutor != null) {
+          builder.executor(virtualExecutor);
+        }
+        client = builder.build();
+      }
+      clientTransport = new HttpClientTransport(client);
+    }
     return new RequestInvocationInterceptor(baseUrl, defaultDecoder, defaultEncoder,
-                                            clientExceptionHandler, headers, httpHandler, httpClient
+                                            clientExceptionHandler, headers, httpHandler,
+                                            clientTransport,
+                                            encodeExecutor == null ? virtualExecutor
+                                                : encodeExecutor,
+                                            decodeExecutor == null ? virtualExecutor
+                                                : decodeExecutor,
+                                            responseCache, coalesceRequests, hedgingPolicy,
+                                            endpoints, concurrencyLimiter, rateLimiter,
+                                            rateLimitGroups, metricsListener
     );
   }
 }
@@ -0,0 +1,51 @@
+package tech.hiddenproject.hic.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Collects calls of single item method and sends them as one request to bulk method of the same
+ * interface. Single item method must have one {@link Path} or {@link Query} parameter, which is
+ * used as item key. Bulk method must have one parameter, which receives list of keys, or keys
+ * joined with comma if parameter is {@link String}, and must return collection or array of items,
+ * not wrapped into {@link tech.hiddenproject.hic.data.impl.Response}. Keys joined with comma must
+ * not contain comma.
+ *
+ * <pre>{@code
+ * @Batched(value = "getBooks", key = "id")
+ * @GET("/book/{id}")
+ * Book getBook(@Path("id") Integer id);
+ *
+ * @GET("/book")
+ * List<Book> getBooks(@Query("ids") String ids);
+ * }</pre>
+ *
+ * @author Danila Rassokhin
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Batched {
+
+  /**
+   * Name of bulk method.
+   */
+  String value();
+
+  /**
+   * Field or getter of bulk item, which value is matched with key of single item call.
+   */
+  String key() default "id";
+
+  /**
+   * Max count of keys in one bulk request.
+   */
+  int maxSize() default 50;
+
+  /**
+   * Max time in milliseconds call waits for other calls before bulk request is sent.
+   */
+  long maxDelay() default 10;
+
+}
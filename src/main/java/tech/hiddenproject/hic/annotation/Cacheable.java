@@ -0,0 +1,25 @@
+package tech.hiddenproject.hic.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks {@link GET} method which responses are stored in
+ * {@link tech.hiddenproject.hic.cache.ResponseCache} of client according to their
+ * {@code Cache-Control} and {@code Expires} headers.
+ *
+ * @author Danila Rassokhin
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cacheable {
+
+  /**
+   * Keeps decoded object in cache and returns the same instance on every hit. Use only for
+   * immutable types.
+   */
+  boolean decoded() default false;
+
+}
@@ -0,0 +1,30 @@
+package tech.hiddenproject.hic.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import tech.hiddenproject.hic.limit.ConcurrencyLimiter;
+import tech.hiddenproject.hic.limit.ConcurrencyLimiter.Algorithm;
+
+/**
+ * Gives method own adaptive {@link ConcurrencyLimiter} instead of limiter of client.
+ *
+ * @author Danila Rassokhin
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ConcurrencyLimit {
+
+  Algorithm algorithm() default Algorithm.GRADIENT;
+
+  int initialLimit() default 20;
+
+  int maxLimit() default 200;
+
+  /**
+   * Max count of requests waiting for permit, 0 to reject requests over limit at once.
+   */
+  int maxQueue() default 0;
+
+}
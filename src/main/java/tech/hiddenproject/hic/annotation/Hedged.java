@@ -0,0 +1,36 @@
+package tech.hiddenproject.hic.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sends second identical request if response of {@link GET}, {@link PUT} or {@link DELETE} method
+ * doesn't arrive in time, and uses response which comes first. See
+ * {@link tech.hiddenproject.hic.hedging.HedgingPolicy}.
+ *
+ * @author Danila Rassokhin
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Hedged {
+
+  /**
+   * Delay in milliseconds before second request. If {@link #percentile()} is set, it is used until
+   * enough latencies are observed.
+   */
+  long delay() default 100;
+
+  /**
+   * Percentile of observed latencies, like 95, to use as delay, or 0 to always use
+   * {@link #delay()}.
+   */
+  double percentile() default 0;
+
+  /**
+   * Max ratio of extra requests to all requests.
+   */
+  double budget() default 0.1;
+
+}
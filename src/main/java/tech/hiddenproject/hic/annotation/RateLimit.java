@@ -0,0 +1,41 @@
+package tech.hiddenproject.hic.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limits rate of requests of method with {@link tech.hiddenproject.hic.limit.RateLimiter}.
+ * Requests over rate are delayed until token is available.
+ *
+ * @author Danila Rassokhin
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RateLimit {
+
+  /**
+   * Requests per second.
+   */
+  double value();
+
+  /**
+   * Count of requests which can be sent at once after idle period.
+   */
+  int burst() default 1;
+
+  /**
+   * Name of quota shared by methods. Methods with the same group use one bucket, which is created
+   * from annotation of first called method unless registered on client builder. Empty group gives
+   * method its own bucket.
+   */
+  String group() default "";
+
+  /**
+   * Max delay of request in milliseconds, requests which would wait longer fail with
+   * {@link tech.hiddenproject.hic.exception.LimitExceededException}. -1 to wait without bound.
+   */
+  long maxWait() default -1;
+
+}
@@ -0,0 +1,21 @@
+package tech.hiddenproject.hic.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import tech.hiddenproject.hic.data.StreamFormat;
+
+/**
+ * Marks method which consumes long-lived line-oriented response. Method must return
+ * {@link java.util.stream.Stream} or {@link java.util.concurrent.Flow.Publisher} of elements.
+ *
+ * @author Danila Rassokhin
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Streaming {
+
+  StreamFormat value() default StreamFormat.NDJSON;
+
+}
@@ -0,0 +1,26 @@
+package tech.hiddenproject.hic.balancer;
+
+/**
+ * Ways {@link EndpointSet} selects endpoint for request.
+ *
+ * @author Danila Rassokhin
+ */
+public enum BalancingPolicy {
+
+  /**
+   * Endpoints are used in turn.
+   */
+  ROUND_ROBIN,
+
+  /**
+   * Endpoint with fewest requests in progress is used.
+   */
+  LEAST_OUTSTANDING,
+
+  /**
+   * Two random endpoints are compared and the one with lower latency EWMA multiplied by requests
+   * in progress is used.
+   */
+  POWER_OF_TWO_EWMA
+
+}
@@ -0,0 +1,92 @@
+package tech.hiddenproject.hic.balancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base url of one server replica in {@link EndpointSet} with its load and health.
+ *
+ * @author Danila Rassokhin
+ */
+public class Endpoint {
+
+  private static final double EWMA_WEIGHT = 0.3;
+
+  private final String url;
+
+  private final AtomicInteger outstanding = new AtomicInteger();
+
+  private volatile double latencyEwma;
+
+  private volatile int failures;
+
+  private volatile long ejectedUntil;
+
+  Endpoint(String url) {
+    this.url = url;
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+  /**
+   * @return Count of requests in progress
+   */
+  public int getOutstanding() {
+    return outstanding.get();
+  }
+
+  /**
+   * @return Exponentially weighted moving average of response time in nanos
+   */
+  public double getLatencyEwma() {
+    return latencyEwma;
+  }
+
+  /**
+   * @return true if endpoint is excluded from selection because of recent failures
+   */
+  public boolean isEjected() {
+    return failures > 0 && System.nanoTime() - ejectedUntil < 0;
+  }
+
+  void start() {
+    outstanding.incrementAndGet();
+  }
+
+  void release() {
+    outstanding.decrementAndGet();
+  }
+
+  synchronized void success(long latencyNanos) {
+    outstanding.decrementAndGet();
+    latencyEwma = latencyEwma == 0 ? latencyNanos
+        : EWMA_WEIGHT * latencyNanos + (1 - EWMA_WEIGHT) * latencyEwma;
+    failures = 0;
+  }
+
+  synchronized void failure(long ejectionNanos, long maxEjectionNanos) {
+    outstanding.decrementAndGet();
+    failures++;
+    ejectedUntil = System.nanoTime() + Math.min(maxEjectionNanos, ejectionNanos * failures);
+  }
+
+  /**
+   * @param seedLatency Latency used while endpoint has no responses yet
+   * @return Expected wait for new request: latency multiplied by requests in progress
+   */
+  double score(double seedLatency) {
+    double latency = latencyEwma == 0 ? seedLatency : latencyEwma;
+    return latency * (outstanding.get() + 1);
+  }
+
+  @Override
+  public String toString() {
+    return "Endpoint{" +
+        "url='" + url + '\'' +
+        ", outstanding=" + getOutstanding() +
+        ", latencyEwma=" + latencyEwma +
+        ", ejected=" + isEjected() +
+        '}';
+  }
+}
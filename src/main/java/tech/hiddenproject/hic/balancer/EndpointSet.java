@@ -0,0 +1,190 @@
+package tech.hiddenproject.hic.balancer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Set of base urls of server replicas, which spreads requests according to
+ * {@link BalancingPolicy}. Endpoints are ejected from selection for a while after connection error
+ * or 5xx response, ejection time grows with consecutive failures. If all endpoints are ejected,
+ * all of them are used.
+ *
+ * @author Danila Rassokhin
+ */
+public class EndpointSet {
+
+  private final List<Endpoint> endpoints;
+
+  private final BalancingPolicy policy;
+
+  private final String name;
+
+  private final AtomicInteger next = new AtomicInteger();
+
+  private volatile long ejectionNanos = Duration.ofSeconds(10).toNanos();
+
+  private volatile long maxEjectionNanos = Duration.ofMinutes(5).toNanos();
+
+  private EndpointSet(BalancingPolicy policy, List<Endpoint> endpoints) {
+    this.policy = policy;
+    this.endpoints = endpoints;
+    this.name = endpoints.stream().map(Endpoint::getUrl).collect(Collectors.joining(","));
+  }
+
+  /**
+   * Creates endpoint set.
+   *
+   * @param policy {@link BalancingPolicy}
+   * @param urls   Base urls of replicas
+   * @return {@link EndpointSet}
+   */
+  public static EndpointSet of(BalancingPolicy policy, String... urls) {
+    if (urls.length == 0) {
+      throw new IllegalArgumentException("At least one url is required");
+    }
+    return new EndpointSet(policy, Collections.unmodifiableList(
+        Arrays.stream(urls).map(Endpoint::new).collect(Collectors.toList())));
+  }
+
+  /**
+   * Sets for how long failed endpoint is ejected. Default is 10 seconds, growing up to 5 minutes.
+   *
+   * @param ejection    Ejection time after first failure, multiplied by count of consecutive
+   *                    failures
+   * @param maxEjection Max ejection time
+   * @return {@link EndpointSet}
+   */
+  public EndpointSet ejection(Duration ejection, Duration maxEjection) {
+    this.ejectionNanos = ejection.toNanos();
+    this.maxEjectionNanos = maxEjection.toNanos();
+    return this;
+  }
+
+  /**
+   * Selects endpoint for request and counts request as in progress. Request must be finished with
+   * {@link #complete(Endpoint, long, int, Throwable)}.
+   *
+   * @return {@link Endpoint}
+   */
+  public Endpoint select() {
+    List<Endpoint> candidates = healthy();
+    Endpoint endpoint;
+    switch (policy) {
+      case LEAST_OUTSTANDING:
+        endpoint = leastOutstanding(candidates);
+        break;
+      case POWER_OF_TWO_EWMA:
+        endpoint = powerOfTwo(candidates);
+        break;
+      default:
+        endpoint = candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+    endpoint.start();
+    return endpoint;
+  }
+
+  /**
+   * Finishes request to endpoint.
+   *
+   * @param endpoint   Endpoint from {@link #select()}
+   * @param startNanos {@link System#nanoTime()} when request was sent
+   * @param statusCode Response status code or -1 if request failed
+   * @param throwable  Request failure or null
+   */
+  public void complete(Endpoint endpoint, long startNanos, int statusCode, Throwable throwable) {
+    if (statusCode >= 500 || isConnectionFailure(throwable)) {
+      endpoint.failure(ejectionNanos, maxEjectionNanos);
+    } else if (throwable != null) {
+      endpoint.release();
+    } else {
+      endpoint.success(System.nanoTime() - startNanos);
+    }
+  }
+
+  public List<Endpoint> getEndpoints() {
+    return endpoints;
+  }
+
+  /**
+   * @return Urls of all endpoints, used instead of base url in cache and coalescing keys
+   */
+  public String getName() {
+    return name;
+  }
+
+  private List<Endpoint> healthy() {
+    List<Endpoint> healthy = new ArrayList<>(endpoints.size());
+    for (Endpoint endpoint : endpoints) {
+      if (!endpoint.isEjected()) {
+        healthy.add(endpoint);
+      }
+    }
+    return healthy.isEmpty() ? endpoints : healthy;
+  }
+
+  private Endpoint leastOutstanding(List<Endpoint> candidates) {
+    int offset = Math.floorMod(next.getAndIncrement(), candidates.size());
+    Endpoint best = null;
+    for (int i = 0; i < candidates.size(); i++) {
+      Endpoint endpoint = candidates.get((offset + i) % candidates.size());
+      if (best == null || endpoint.getOutstanding() < best.getOutstanding()) {
+        best = endpoint;
+      }
+    }
+    return best;
+  }
+
+  private Endpoint powerOfTwo(List<Endpoint> candidates) {
+    if (candidates.size() == 1) {
+      return candidates.get(0);
+    }
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int first = random.nextInt(candidates.size());
+    int second = random.nextInt(candidates.size() - 1);
+    if (second >= first) {
+      second++;
+    }
+    Endpoint a = candidates.get(first);
+    Endpoint b = candidates.get(second);
+    double seed = meanLatency(candidates);
+    if (seed == 0) {
+      return a.getOutstanding() <= b.getOutstanding() ? a : b;
+    }
+    return a.score(seed) <= b.score(seed) ? a : b;
+  }
+
+  /**
+   * @return Mean latency of endpoints with responses, used for new endpoints so they don't get all
+   * requests until their first response, or 0 if there are no responses yet
+   */
+  private double meanLatency(List<Endpoint> candidates) {
+    double sum = 0;
+    int count = 0;
+    for (Endpoint endpoint : candidates) {
+      double latency = endpoint.getLatencyEwma();
+      if (latency > 0) {
+        sum += latency;
+        count++;
+      }
+    }
+    return count == 0 ? 0 : sum / count;
+  }
+
+  private boolean isConnectionFailure(Throwable throwable) {
+    Throwable cause = throwable;
+    while (cause != null) {
+      if (cause instanceof IOException) {
+        return true;
+      }
+      cause = cause.getCause();
+    }
+    return false;
+  }
+}
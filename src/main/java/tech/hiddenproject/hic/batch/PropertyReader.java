@@ -0,0 +1,70 @@
+package tech.hiddenproject.hic.batch;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import tech.hiddenproject.hic.exception.HttpClientException;
+
+/**
+ * Reads named property of objects by getter, record-style accessor or field.
+ *
+ * @author Danila Rassokhin
+ */
+public class PropertyReader implements Function<Object, Object> {
+
+  private final String name;
+
+  private final Map<Class<?>, Function<Object, Object>> accessors = new ConcurrentHashMap<>();
+
+  public PropertyReader(String name) {
+    this.name = name;
+  }
+
+  @Override
+  public Object apply(Object target) {
+    if (target instanceof Map) {
+      return ((Map<?, ?>) target).get(name);
+    }
+    return accessors.computeIfAbsent(target.getClass(), this::accessor).apply(target);
+  }
+
+  private Function<Object, Object> accessor(Class<?> type) {
+    String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    for (String methodName : new String[]{"get" + capitalized, "is" + capitalized, name}) {
+      try {
+        Method method = type.getMethod(methodName);
+        return target -> invoke(method, target);
+      } catch (NoSuchMethodException e) {
+        // Try next accessor
+      }
+    }
+    for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+      try {
+        Field field = current.getDeclaredField(name);
+        field.setAccessible(true);
+        return target -> read(field, target);
+      } catch (NoSuchFieldException e) {
+        // Try superclass
+      }
+    }
+    throw new HttpClientException("No property " + name + " found in " + type);
+  }
+
+  private Object invoke(Method method, Object target) {
+    try {
+      return method.invoke(target);
+    } catch (ReflectiveOperationException e) {
+      throw new HttpClientException(e);
+    }
+  }
+
+  private Object read(Field field, Object target) {
+    try {
+      return field.get(target);
+    } catch (IllegalAccessException e) {
+      throw new HttpClientException(e);
+    }
+  }
+}
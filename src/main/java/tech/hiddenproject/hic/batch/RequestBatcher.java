@@ -0,0 +1,146 @@
+package tech.hiddenproject.hic.batch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import tech.hiddenproject.hic.executor.SharedExecutor;
+
+/**
+ * Collects single item calls for {@link tech.hiddenproject.hic.annotation.Batched} method and sends
+ * them as one bulk request, when max batch size is reached or max delay passes after first call.
+ * Calls with the same key share one item in bulk request.
+ *
+ * @author Danila Rassokhin
+ */
+public class RequestBatcher {
+
+  private final int maxSize;
+
+  private final long maxDelay;
+
+  private final Function<List<String>, CompletableFuture<Object>> bulkRequest;
+
+  private final Function<Object, Object> keyReader;
+
+  private Map<String, List<CompletableFuture<Object>>> pending = new LinkedHashMap<>();
+
+  private ScheduledFuture<?> timer;
+
+  /**
+   * @param maxSize     Max count of keys in one bulk request
+   * @param maxDelay    Max time in milliseconds to wait for more calls
+   * @param bulkRequest Sends bulk request for keys and returns collection or array of items
+   * @param keyReader   Reads key from bulk item
+   */
+  public RequestBatcher(int maxSize, long maxDelay,
+                        Function<List<String>, CompletableFuture<Object>> bulkRequest,
+                        Function<Object, Object> keyReader) {
+    this.maxSize = maxSize;
+    this.maxDelay = maxDelay;
+    this.bulkRequest = bulkRequest;
+    this.keyReader = keyReader;
+  }
+
+  /**
+   * Adds call to current batch.
+   *
+   * @param key Item key
+   * @return Future with item from bulk response, or null if response has no item with this key
+   */
+  public CompletableFuture<Object> add(String key) {
+    CompletableFuture<Object> result = new CompletableFuture<>();
+    Map<String, List<CompletableFuture<Object>>> batch = null;
+    synchronized (this) {
+      pending.computeIfAbsent(key, k -> new ArrayList<>()).add(result);
+      if (pending.size() >= maxSize) {
+        batch = take();
+      } else if (timer == null) {
+        timer = SharedExecutor.scheduler().schedule(
+            () -> SharedExecutor.get().execute(this::flush), maxDelay, TimeUnit.MILLISECONDS);
+      }
+    }
+    if (batch != null) {
+      send(batch);
+    }
+    return result;
+  }
+
+  /**
+   * Sends collected calls without waiting.
+   */
+  public void flush() {
+    Map<String, List<CompletableFuture<Object>>> batch;
+    synchronized (this) {
+      if (pending.isEmpty()) {
+        return;
+      }
+      batch = take();
+    }
+    send(batch);
+  }
+
+  private Map<String, List<CompletableFuture<Object>>> take() {
+    Map<String, List<CompletableFuture<Object>>> batch = pending;
+    pending = new LinkedHashMap<>();
+    if (timer != null) {
+      timer.cancel(false);
+      timer = null;
+    }
+    return batch;
+  }
+
+  private void send(Map<String, List<CompletableFuture<Object>>> batch) {
+    CompletableFuture<Object> response;
+    try {
+      response = bulkRequest.apply(new ArrayList<>(batch.keySet()));
+    } catch (RuntimeException e) {
+      fail(batch, e);
+      return;
+    }
+    response.whenComplete((items, throwable) -> {
+      if (throwable != null) {
+        fail(batch, throwable);
+        return;
+      }
+      try {
+        Map<String, Object> byKey = new HashMap<>();
+        for (Object item : items(items)) {
+          if (item != null) {
+            byKey.put(String.valueOf(keyReader.apply(item)), item);
+          }
+        }
+        for (Entry<String, List<CompletableFuture<Object>>> call : batch.entrySet()) {
+          Object item = byKey.get(call.getKey());
+          call.getValue().forEach(result -> result.complete(item));
+        }
+      } catch (RuntimeException e) {
+        fail(batch, e);
+      }
+    });
+  }
+
+  private Iterable<?> items(Object items) {
+    if (items instanceof Iterable) {
+      return (Iterable<?>) items;
+    }
+    if (items instanceof Object[]) {
+      return Arrays.asList((Object[]) items);
+    }
+    return Collections.emptyList();
+  }
+
+  private void fail(Map<String, List<CompletableFuture<Object>>> batch, Throwable throwable) {
+    for (List<CompletableFuture<Object>> calls : batch.values()) {
+      calls.forEach(result -> result.completeExceptionally(throwable));
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package tech.hiddenproject.hic.bytecode;
+
+import tech.hiddenproject.hic.MethodPlan;
+import tech.hiddenproject.hic.RequestInvocationInterceptor;
+import tech.hiddenproject.hic.RequestParameters;
+
+/**
+ * Precompiled handler of single {@link tech.hiddenproject.hic.WebClient} interface method. Classes
+ * generated by {@link RuntimeClientGenerator} call it directly with method arguments, so common
+ * arities need no argument array.
+ *
+ * @author Danila Rassokhin
+ */
+public final class PlanInvocation {
+
+  private final MethodPlan plan;
+
+  private final RequestInvocationInterceptor interceptor;
+
+  public PlanInvocation(MethodPlan plan, RequestInvocationInterceptor interceptor) {
+    this.plan = plan;
+    this.interceptor = interceptor;
+  }
+
+  public Object invoke() {
+    long start = interceptor.bindStart();
+    return interceptor.execute(plan, plan.parameters(), start);
+  }
+
+  public Object invoke(Object a0) {
+    long start = interceptor.bindStart();
+    RequestParameters parameters = plan.parameters();
+    plan.bind(parameters, 0, a0);
+    return interceptor.execute(plan, parameters, start);
+  }
+
+  public Object invoke(Object a0, Object a1) {
+    long start = interceptor.bindStart();
+    RequestParameters parameters = plan.parameters();
+    plan.bind(parameters, 0, a0);
+    plan.bind(parameters, 1, a1);
+    return interceptor.execute(plan, parameters, start);
+  }
+
+  public Object invoke(Object a0, Object a1, Object a2) {
+    long start = interceptor.bindStart();
+    RequestParameters parameters = plan.parameters();
+    plan.bind(parameters, 0, a0);
+    plan.bind(parameters, 1, a1);
+    plan.bind(parameters, 2, a2);
+    return interceptor.execute(plan, parameters, start);
+  }
+
+  public Object invoke(Object a0, Object a1, Object a2, Object a3) {
+    long start = interceptor.bindStart();
+    RequestParameters parameters = plan.parameters();
+    plan.bind(parameters, 0, a0);
+    plan.bind(parameters, 1, a1);
+    plan.bind(parameters, 2, a2);
+    plan.bind(parameters, 3, a3);
+    return interceptor.execute(plan, parameters, start);
+  }
+
+  /**
+   * Handles methods with more parameters than typed overloads support.
+   *
+   * @param args Method arguments
+   * @return Method result
+   */
+  public Object invokeWithArray(Object[] args) {
+    long start = interceptor.bindStart();
+    return interceptor.execute(plan, plan.bind(args), start);
+  }
+
+}
@@ -0,0 +1,102 @@
+package tech.hiddenproject.hic.bytecode;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.ExceptionMethod;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+import net.bytebuddy.matcher.ElementMatchers;
+import tech.hiddenproject.hic.MethodPlan;
+import tech.hiddenproject.hic.RequestInvocationInterceptor;
+import tech.hiddenproject.hic.exception.HttpClientException;
+
+/**
+ * Generates {@link tech.hiddenproject.hic.WebClient} interface implementation at runtime. Each
+ * method of generated class calls its own {@link PlanInvocation} directly, without
+ * {@link java.lang.reflect.InvocationHandler} dispatch. Requires Byte Buddy on classpath.
+ *
+ * @author Danila Rassokhin
+ */
+public class RuntimeClientGenerator {
+
+  private static final int MAX_TYPED_ARITY = 4;
+
+  /**
+   * @return true if Byte Buddy is available on classpath
+   */
+  public static boolean isAvailable() {
+    try {
+      Class.forName("net.bytebuddy.ByteBuddy", false, RuntimeClientGenerator.class.getClassLoader());
+      return true;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Generates and instantiates client implementation.
+   *
+   * @param clientClass Client interface
+   * @param interceptor {@link RequestInvocationInterceptor} to perform requests
+   * @param <T>         Type of client
+   * @return Client instance
+   */
+  public static <T> T create(Class<T> clientClass, RequestInvocationInterceptor interceptor) {
+    DynamicType.Builder<T> builder = new ByteBuddy()
+        .subclass(clientClass)
+        .name(clientClass.getName() + "$Generated")
+        .modifiers(Visibility.PUBLIC);
+    for (Method method : clientClass.getMethods()) {
+      if (!Modifier.isAbstract(method.getModifiers())) {
+        continue;
+      }
+      MethodPlan plan;
+      try {
+        plan = MethodPlan.of(method);
+      } catch (HttpClientException e) {
+        builder = builder.method(ElementMatchers.is(method))
+            .intercept(ExceptionMethod.throwing(HttpClientException.class, e.getMessage()));
+        continue;
+      }
+      builder = builder.method(ElementMatchers.is(method))
+          .intercept(invocation(method, new PlanInvocation(plan, interceptor)));
+    }
+    try {
+      return builder.make()
+          .load(clientClass.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+          .getLoaded()
+          .getConstructor()
+          .newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new HttpClientException(e);
+    }
+  }
+
+  private static Implementation invocation(Method method, PlanInvocation invocation) {
+    int arity = method.getParameterCount();
+    MethodCall call;
+    try {
+      if (arity <= MAX_TYPED_ARITY) {
+        Class<?>[] parameters = new Class<?>[arity];
+        Arrays.fill(parameters, Object.class);
+        call = MethodCall.invoke(PlanInvocation.class.getMethod("invoke", parameters))
+            .on(invocation)
+            .withAllArguments();
+      } else {
+        call = MethodCall.invoke(
+                PlanInvocation.class.getMethod("invokeWithArray", Object[].class))
+            .on(invocation)
+            .withArgumentArray();
+      }
+    } catch (NoSuchMethodException e) {
+      throw new HttpClientException(e);
+    }
+    return call.withAssigner(Assigner.DEFAULT, Assigner.Typing.DYNAMIC);
+  }
+}
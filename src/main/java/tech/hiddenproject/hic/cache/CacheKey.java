@@ -0,0 +1,59 @@
+package tech.hiddenproject.hic.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import tech.hiddenproject.hic.exception.HttpClientException;
+
+/**
+ * Builds keys of {@link ResponseCache}. Key contains request method, resolved uri and digest of
+ * headers which identify caller, so responses of one caller are never served to another one.
+ * Header values are not stored in key as is, so credentials are not written to disk caches.
+ *
+ * @author Danila Rassokhin
+ */
+public class CacheKey {
+
+  /**
+   * Names of request headers which identify caller, in lower case.
+   */
+  public static final Set<String> IDENTIFYING_HEADERS = Set.of(
+      "authorization", "proxy-authorization", "cookie", "x-api-key");
+
+  /**
+   * @param method  Request method
+   * @param uri     Resolved uri
+   * @param headers Request headers
+   * @return Cache key
+   */
+  public static String of(String method, String uri, Map<String, String> headers) {
+    Map<String, String> identity = new TreeMap<>();
+    for (Map.Entry<String, String> header : headers.entrySet()) {
+      String name = header.getKey().toLowerCase(Locale.ROOT);
+      if (IDENTIFYING_HEADERS.contains(name)) {
+        identity.put(name, header.getValue());
+      }
+    }
+    String key = method + " " + uri;
+    return identity.isEmpty() ? key : key + " " + digest(identity);
+  }
+
+  /**
+   * @param values Header names in lower case and their values
+   * @return SHA-256 digest of values
+   */
+  static String digest(Map<String, String> values) {
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256")
+          .digest(values.toString().getBytes(StandardCharsets.UTF_8));
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new HttpClientException(e);
+    }
+  }
+}
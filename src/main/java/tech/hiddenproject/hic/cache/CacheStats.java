@@ -0,0 +1,73 @@
+package tech.hiddenproject.hic.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of {@link ResponseCache} usage.
+ *
+ * @author Danila Rassokhin
+ */
+public class CacheStats {
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  private final LongAdder revalidations = new LongAdder();
+
+  private final LongAdder evictions = new LongAdder();
+
+  public void recordHit() {
+    hits.increment();
+  }
+
+  public void recordMiss() {
+    misses.increment();
+  }
+
+  public void recordRevalidation() {
+    revalidations.increment();
+  }
+
+  public void recordEviction() {
+    evictions.increment();
+  }
+
+  /**
+   * @return Count of requests served with fresh stored response
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return Count of requests which got new response from server
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return Count of requests which stored response was confirmed by server with 304 Not Modified
+   */
+  public long getRevalidations() {
+    return revalidations.sum();
+  }
+
+  /**
+   * @return Count of responses removed from cache to fit its size
+   */
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "CacheStats{" +
+        "hits=" + getHits() +
+        ", misses=" + getMisses() +
+        ", revalidations=" + getRevalidations() +
+        ", evictions=" + getEvictions() +
+        '}';
+  }
+}
@@ -0,0 +1,289 @@
+package tech.hiddenproject.hic.cache;
+
+import java.lang.reflect.Type;
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Response stored in {@link ResponseCache} with its validators and expiration time.
+ *
+ * @author Danila Rassokhin
+ */
+public class CachedResponse {
+
+  private static final long NOT_STORABLE = -1;
+
+  private final int statusCode;
+
+  private final byte[] body;
+
+  private final String etag;
+
+  private final String lastModified;
+
+  private final long expiresAt;
+
+  private final String vary;
+
+  private final String varyDigest;
+
+  private volatile Decoded decoded;
+
+  /**
+   * @param statusCode   Response status code
+   * @param body         Response body in UTF-8
+   * @param etag         ETag header or null
+   * @param lastModified Last-Modified header or null
+   * @param expiresAt    Epoch millis until which response is fresh
+   */
+  public CachedResponse(int statusCode, byte[] body, String etag, String lastModified,
+                        long expiresAt) {
+    this(statusCode, body, etag, lastModified, expiresAt, null, null);
+  }
+
+  /**
+   * @param statusCode   Response status code
+   * @param body         Response body in UTF-8
+   * @param etag         ETag header or null
+   * @param lastModified Last-Modified header or null
+   * @param expiresAt    Epoch millis until which response is fresh
+   * @param vary         Comma separated request header names of Vary header in lower case or null
+   * @param varyDigest   Digest of values of these headers in request or null
+   */
+  public CachedResponse(int statusCode, byte[] body, String etag, String lastModified,
+                        long expiresAt, String vary, String varyDigest) {
+    this.statusCode = statusCode;
+    this.body = body;
+    this.etag = etag;
+    this.lastModified = lastModified;
+    this.expiresAt = expiresAt;
+    this.vary = vary;
+    this.varyDigest = varyDigest;
+  }
+
+  /**
+   * Creates cache entry from response. Values of request headers named by {@code Vary} are kept,
+   * so entry is used only for requests with the same values.
+   *
+   * @param statusCode     Response status code
+   * @param headers        Response headers
+   * @param body           Response body
+   * @param requestHeaders Headers of request
+   * @param now            Current epoch millis
+   * @return {@link CachedResponse} or null if response must not be stored
+   */
+  public static CachedResponse of(int statusCode, HttpHeaders headers, String body,
+                                  Map<String, String> requestHeaders, long now) {
+    if (statusCode != 200 || body == null) {
+      return null;
+    }
+    long expiresAt = expiresAt(headers, now);
+    String etag = headers.firstValue("ETag").orElse(null);
+    String lastModified = headers.firstValue("Last-Modified").orElse(null);
+    if (expiresAt == NOT_STORABLE || (expiresAt <= now && etag == null && lastModified == null)) {
+      return null;
+    }
+    String vary = vary(headers);
+    if (vary != null && vary.contains("*")) {
+      return null;
+    }
+    return new CachedResponse(statusCode, body.getBytes(StandardCharsets.UTF_8), etag,
+                              lastModified, expiresAt, vary,
+                              vary == null ? null : varyDigest(vary, requestHeaders)
+    );
+  }
+
+  /**
+   * @return Request header names of {@code Vary} in lower case separated with comma or null
+   */
+  private static String vary(HttpHeaders headers) {
+    StringBuilder names = new StringBuilder();
+    for (String value : headers.allValues("Vary")) {
+      for (String name : value.split(",")) {
+        String trimmed = name.trim().toLowerCase(Locale.ROOT);
+        if (!trimmed.isEmpty()) {
+          names.append(names.length() == 0 ? "" : ",").append(trimmed);
+        }
+      }
+    }
+    return names.length() == 0 ? null : names.toString();
+  }
+
+  private static String varyDigest(String vary, Map<String, String> requestHeaders) {
+    Map<String, String> lowerCase = new TreeMap<>();
+    requestHeaders.forEach(
+        (name, value) -> lowerCase.put(name.toLowerCase(Locale.ROOT), value));
+    Map<String, String> values = new TreeMap<>();
+    for (String name : vary.split(",")) {
+      values.put(name, lowerCase.getOrDefault(name, ""));
+    }
+    return CacheKey.digest(values);
+  }
+
+  /**
+   * Resolves freshness lifetime from {@code Cache-Control} max-age minus {@code Age} or
+   * {@code Expires}. Responses without them or with {@code no-cache} are stale immediately and
+   * must be revalidated, responses with {@code no-store} or {@code private} are not stored.
+   */
+  private static long expiresAt(HttpHeaders headers, long now) {
+    long maxAge = -1;
+    for (String value : headers.allValues("Cache-Control")) {
+      for (String directive : value.split(",")) {
+        String name = directive.trim().toLowerCase(Locale.ROOT);
+        if (name.equals("no-store") || name.equals("private")
+            || name.startsWith("private=")) {
+          return NOT_STORABLE;
+        }
+        if (name.equals("no-cache")) {
+          return now;
+        }
+        if (name.startsWith("max-age=")) {
+          try {
+            maxAge = Long.parseLong(name.substring(8).replace("\"", ""));
+          } catch (NumberFormatException e) {
+            return now;
+          }
+        }
+      }
+    }
+    if (maxAge >= 0) {
+      long age = Math.max(0, headers.firstValueAsLong("Age").orElse(0));
+      return now + Math.max(0, maxAge - age) * 1000;
+    }
+    Optional<String> expires = headers.firstValue("Expires");
+    if (expires.isPresent()) {
+      try {
+        return ZonedDateTime.parse(expires.get(), DateTimeFormatter.RFC_1123_DATE_TIME)
+            .toInstant().toEpochMilli();
+      } catch (DateTimeParseException e) {
+        return now;
+      }
+    }
+    return now;
+  }
+
+  /**
+   * Creates entry with same body and freshness updated from 304 Not Modified response.
+   *
+   * @param headers Headers of 304 response
+   * @param now     Current epoch millis
+   * @return Updated {@link CachedResponse}
+   */
+  public CachedResponse revalidated(HttpHeaders headers, long now) {
+    long newExpiresAt = expiresAt(headers, now);
+    CachedResponse revalidated = new CachedResponse(
+        statusCode, body, headers.firstValue("ETag").orElse(etag),
+        headers.firstValue("Last-Modified").orElse(lastModified),
+        newExpiresAt == NOT_STORABLE ? now : newExpiresAt, vary, varyDigest
+    );
+    revalidated.decoded = decoded;
+    return revalidated;
+  }
+
+  /**
+   * Adds {@code If-None-Match} and {@code If-Modified-Since} headers to revalidate this entry.
+   *
+   * @param headers Request headers
+   */
+  public void addConditionalHeaders(Map<String, String> headers) {
+    if (etag != null) {
+      headers.put("If-None-Match", etag);
+    }
+    if (lastModified != null) {
+      headers.put("If-Modified-Since", lastModified);
+    }
+  }
+
+  /**
+   * @param requestHeaders Headers of request
+   * @return true if request has the same values of headers named by {@code Vary} as request
+   * this entry was stored for
+   */
+  public boolean matches(Map<String, String> requestHeaders) {
+    return vary == null || varyDigest.equals(varyDigest(vary, requestHeaders));
+  }
+
+  /**
+   * @param now Current epoch millis
+   * @return true if entry can be used without revalidation
+   */
+  public boolean isFresh(long now) {
+    return now < expiresAt;
+  }
+
+  /**
+   * @return Approximate memory used by entry in bytes
+   */
+  public long weight() {
+    return body.length;
+  }
+
+  public int getStatusCode() {
+    return statusCode;
+  }
+
+  public String getBody() {
+    return new String(body, StandardCharsets.UTF_8);
+  }
+
+  public byte[] getBodyBytes() {
+    return body;
+  }
+
+  public String getEtag() {
+    return etag;
+  }
+
+  public String getLastModified() {
+    return lastModified;
+  }
+
+  public long getExpiresAt() {
+    return expiresAt;
+  }
+
+  public String getVary() {
+    return vary;
+  }
+
+  public String getVaryDigest() {
+    return varyDigest;
+  }
+
+  /**
+   * @param type Type body was decoded into
+   * @return Decoded body kept for {@link tech.hiddenproject.hic.annotation.Cacheable#decoded()}
+   * methods or null if there is no body decoded into given type
+   */
+  public Object getDecoded(Type type) {
+    Decoded current = decoded;
+    return current != null && current.type.equals(type) ? current.value : null;
+  }
+
+  /**
+   * @param type  Type body was decoded into
+   * @param value Decoded body
+   */
+  public void setDecoded(Type type, Object value) {
+    this.decoded = value == null ? null : new Decoded(type, value);
+  }
+
+  private static class Decoded {
+
+    private final Type type;
+
+    private final Object value;
+
+    private Decoded(Type type, Object value) {
+      this.type = type;
+      this.value = value;
+    }
+  }
+}
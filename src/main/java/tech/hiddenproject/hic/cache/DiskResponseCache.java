@@ -0,0 +1,672 @@
+package tech.hiddenproject.hic.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.hiddenproject.hic.exception.HttpClientException;
+
+/**
+ * Persistent {@link ResponseCache} which keeps response bodies with their validators in
+ * memory-mapped segment files, so restarted process starts with warm cache.
+ *
+ * <p>Records are appended to the last segment and protected with checksum. On open all segments
+ * are scanned to rebuild index, scan of segment stops at first incomplete or corrupted record, so
+ * interrupted write loses only that record. Written records are in page cache of OS, so they
+ * survive crash of process, and are flushed to disk when segment is full or cache is closed.
+ * Records written since last flush may be lost on crash of OS, unless cache is opened with
+ * {@code syncWrites}, which flushes every record. When total size of segments exceeds the cap,
+ * oldest segment is dropped. Space of replaced, removed and expired responses is reclaimed by
+ * {@link #compact()}, which is also started automatically when more than half of cache is
+ * garbage.
+ *
+ * <p>Directory is locked while cache is open, so it can't be used by two processes at once.
+ * Revalidated responses with unchanged body and validators only append their new expiration
+ * time. Segments are unmapped when they are dropped or cache is closed, cache must not be used
+ * after {@link #close()}.
+ *
+ * @author Danila Rassokhin
+ */
+public class DiskResponseCache implements ResponseCache, Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(DiskResponseCache.class);
+
+  private static final int MAGIC = 0x48494332;
+
+  private static final int HEADER_SIZE = 12;
+
+  private static final byte ENTRY = 1;
+
+  private static final byte TOMBSTONE = 0;
+
+  private static final byte EXPIRES = 2;
+
+  private static final String SEGMENT_PREFIX = "segment-";
+
+  private static final String SEGMENT_SUFFIX = ".dat";
+
+  private static final String LOCK_FILE = "cache.lock";
+
+  private static final int MIN_SEGMENT_SIZE = 1024 * 1024;
+
+  private static final int MAX_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+  private static final Object UNSAFE;
+
+  private static final Method INVOKE_CLEANER;
+
+  static {
+    Object unsafe = null;
+    Method invokeCleaner = null;
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field field = unsafeClass.getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      unsafe = field.get(null);
+      invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      log.debug("Cache segments can't be unmapped explicitly, they are unmapped by GC", e);
+    }
+    UNSAFE = unsafe;
+    INVOKE_CLEANER = invokeCleaner;
+  }
+
+  private final Path directory;
+
+  private final long maxBytes;
+
+  private final int segmentSize;
+
+  private final boolean syncWrites;
+
+  private final List<Segment> segments = new ArrayList<>();
+
+  private final Map<String, Location> index = new HashMap<>();
+
+  private final CacheStats stats = new CacheStats();
+
+  private final FileChannel lockChannel;
+
+  private final FileLock lock;
+
+  private long liveBytes;
+
+  private long nextSegmentId;
+
+  private boolean compacting;
+
+  private boolean closed;
+
+  /**
+   * Opens cache in given directory and loads stored responses. Written responses are flushed to
+   * disk when segment is full or cache is closed.
+   *
+   * @param directory Directory for segment files, created if absent
+   * @param maxBytes  Max total size of segment files
+   * @throws HttpClientException if directory is used by other cache
+   */
+  public DiskResponseCache(Path directory, long maxBytes) {
+    this(directory, maxBytes, false);
+  }
+
+  /**
+   * Opens cache in given directory and loads stored responses.
+   *
+   * @param directory  Directory for segment files, created if absent
+   * @param maxBytes   Max total size of segment files
+   * @param syncWrites true to flush every written record to disk, so it survives crash of OS
+   * @throws HttpClientException if directory is used by other cache
+   */
+  public DiskResponseCache(Path directory, long maxBytes, boolean syncWrites) {
+    this.directory = directory;
+    this.maxBytes = maxBytes;
+    this.syncWrites = syncWrites;
+    this.segmentSize = (int) Math.min(
+        maxBytes, Math.max(MIN_SEGMENT_SIZE, Math.min(MAX_SEGMENT_SIZE, maxBytes / 8)));
+    try {
+      Files.createDirectories(directory);
+      this.lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+                                          StandardOpenOption.WRITE
+      );
+      this.lock = tryLock(lockChannel);
+      if (lock == null) {
+        lockChannel.close();
+        throw new HttpClientException("Cache directory is used by another process: " + directory);
+      }
+      load();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static FileLock tryLock(FileChannel channel) throws IOException {
+    try {
+      return channel.tryLock();
+    } catch (OverlappingFileLockException e) {
+      return null;
+    }
+  }
+
+  @Override
+  public synchronized CachedResponse get(String key) {
+    if (closed) {
+      return null;
+    }
+    Location location = index.get(key);
+    if (location == null) {
+      return null;
+    }
+    return read(location);
+  }
+
+  /**
+   * Stores response. If stored response has the same body and validators, like after
+   * revalidation, only its new expiration time is appended.
+   */
+  @Override
+  public synchronized void put(String key, CachedResponse response) {
+    if (closed) {
+      return;
+    }
+    Location location = index.get(key);
+    if (location != null && isSameContent(read(location), response)) {
+      byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+      ByteBuffer record = record(EXPIRES, keyBytes, 8);
+      record.putLong(response.getExpiresAt());
+      append(key, seal(record));
+      return;
+    }
+    append(key, encode(ENTRY, key, response));
+  }
+
+  private static boolean isSameContent(CachedResponse stored, CachedResponse response) {
+    return stored.getStatusCode() == response.getStatusCode()
+        && Objects.equals(stored.getEtag(), response.getEtag())
+        && Objects.equals(stored.getLastModified(), response.getLastModified())
+        && Objects.equals(stored.getVary(), response.getVary())
+        && Objects.equals(stored.getVaryDigest(), response.getVaryDigest())
+        && Arrays.equals(stored.getBodyBytes(), response.getBodyBytes());
+  }
+
+  @Override
+  public synchronized void remove(String key) {
+    if (!closed && index.containsKey(key)) {
+      append(key, encode(TOMBSTONE, key, null));
+    }
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return stats;
+  }
+
+  /**
+   * Rewrites stored responses of full segments, dropping replaced and removed ones and expired
+   * responses which can't be revalidated. Segments are compacted one by one from the oldest: live
+   * records are copied to memory, segment is deleted and records are appended again, so cache
+   * never takes more than its cap on disk. Responses of segment being compacted are lost if
+   * process crashes meanwhile.
+   */
+  public synchronized void compact() {
+    if (compacting || closed || segments.size() < 2) {
+      return;
+    }
+    compacting = true;
+    long now = System.currentTimeMillis();
+    Map<Segment, List<Map.Entry<String, Location>>> bySegment = new LinkedHashMap<>();
+    for (Segment segment : segments.subList(0, segments.size() - 1)) {
+      bySegment.put(segment, new ArrayList<>());
+    }
+    for (Map.Entry<String, Location> entry : index.entrySet()) {
+      List<Map.Entry<String, Location>> entries = bySegment.get(entry.getValue().segment);
+      if (entries != null) {
+        entries.add(entry);
+      }
+    }
+    try {
+      for (Map.Entry<Segment, List<Map.Entry<String, Location>>> group : bySegment.entrySet()) {
+        Segment segment = group.getKey();
+        if (!segments.contains(segment)) {
+          continue;
+        }
+        List<Map.Entry<String, Location>> entries = group.getValue();
+        entries.sort(Comparator.comparingInt(entry -> entry.getValue().offset));
+        Map<String, byte[]> records = new LinkedHashMap<>();
+        for (Map.Entry<String, Location> entry : entries) {
+          Location location = entry.getValue();
+          if (index.get(entry.getKey()) != location) {
+            continue;
+          }
+          CachedResponse response = read(location);
+          if (!response.isFresh(now) && response.getEtag() == null
+              && response.getLastModified() == null) {
+            continue;
+          }
+          if (location.expiresAt != Location.STORED) {
+            records.put(entry.getKey(), encode(ENTRY, entry.getKey(), response));
+            continue;
+          }
+          byte[] bytes = new byte[location.length];
+          location.segment.read(location.offset, location.length).get(bytes);
+          records.put(entry.getKey(), bytes);
+        }
+        for (Map.Entry<String, Location> entry : entries) {
+          if (index.get(entry.getKey()) == entry.getValue()) {
+            index(entry.getKey(), null);
+          }
+        }
+        segments.remove(segment);
+        drop(segment);
+        for (Map.Entry<String, byte[]> record : records.entrySet()) {
+          append(record.getKey(), record.getValue());
+        }
+      }
+      segments.get(segments.size() - 1).buffer.force();
+    } finally {
+      compacting = false;
+    }
+  }
+
+  /**
+   * Flushes written responses to disk and releases directory.
+   */
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    for (Segment segment : segments) {
+      segment.buffer.force();
+      segment.unmap();
+    }
+    segments.clear();
+    index.clear();
+    try {
+      lock.release();
+      lockChannel.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * @return Total size of stored responses, which are not replaced or removed
+   */
+  public synchronized long size() {
+    return liveBytes;
+  }
+
+  private void load() throws IOException {
+    List<Path> files;
+    try (Stream<Path> list = Files.list(directory)) {
+      files = list.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+          .sorted((first, second) -> Long.compare(segmentId(first), segmentId(second)))
+          .collect(Collectors.toList());
+    }
+    for (Path file : files) {
+      Segment segment = new Segment(file, segmentId(file), segmentSize);
+      segments.add(segment);
+      nextSegmentId = segment.id + 1;
+      scan(segment);
+    }
+    if (segments.isEmpty()) {
+      newSegment();
+    }
+    log.debug("Loaded {} responses from {}", index.size(), directory);
+  }
+
+  private CachedResponse read(Location location) {
+    ByteBuffer record = location.segment.read(location.offset + HEADER_SIZE,
+                                              location.length - HEADER_SIZE
+    );
+    record.get();
+    skipString(record);
+    CachedResponse response = readEntry(record);
+    if (location.expiresAt == Location.STORED) {
+      return response;
+    }
+    return new CachedResponse(response.getStatusCode(), response.getBodyBytes(),
+                              response.getEtag(), response.getLastModified(),
+                              location.expiresAt, response.getVary(), response.getVaryDigest()
+    );
+  }
+
+  private void scan(Segment segment) {
+    ByteBuffer buffer = segment.buffer.duplicate();
+    int position = 0;
+    while (position + HEADER_SIZE <= buffer.limit()) {
+      int magic = buffer.getInt(position);
+      int length = buffer.getInt(position + 4);
+      if (magic != MAGIC || length <= 0 || position + HEADER_SIZE + length > buffer.limit()) {
+        break;
+      }
+      ByteBuffer payload = segment.read(position + HEADER_SIZE, length);
+      if (checksum(payload.duplicate()) != buffer.getInt(position + 8)) {
+        log.warn("Corrupted record in {} at {}, rest of segment is ignored", segment.file,
+                 position
+        );
+        break;
+      }
+      byte type = payload.get();
+      String key = readString(payload);
+      if (type == EXPIRES) {
+        Location location = index.get(key);
+        if (location != null) {
+          location.expiresAt = payload.getLong();
+        }
+      } else {
+        index(key, type == ENTRY ? new Location(segment, position, HEADER_SIZE + length) : null);
+      }
+      position += HEADER_SIZE + length;
+    }
+    segment.position = position;
+    if (position + HEADER_SIZE <= buffer.limit() && buffer.getInt(position) != 0) {
+      segment.clearTail();
+    }
+  }
+
+  private void append(String key, byte[] record) {
+    if (record.length > segmentSize) {
+      index(key, null);
+      return;
+    }
+    Segment active = segments.get(segments.size() - 1);
+    if (active.remaining() < record.length) {
+      active.buffer.force();
+      try {
+        active = newSegment();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    int offset = active.position;
+    active.write(record);
+    if (syncWrites) {
+      active.buffer.force();
+    }
+    byte type = record[HEADER_SIZE];
+    if (type == EXPIRES) {
+      Location location = index.get(key);
+      if (location != null) {
+        location.expiresAt = ByteBuffer.wrap(record, record.length - 8, 8).getLong();
+      }
+      return;
+    }
+    index(key, type == ENTRY ? new Location(active, offset, record.length) : null);
+  }
+
+  private void index(String key, Location location) {
+    Location previous = location == null ? index.remove(key) : index.put(key, location);
+    if (previous != null) {
+      liveBytes -= previous.length;
+    }
+    if (location != null) {
+      liveBytes += location.length;
+    }
+  }
+
+  private Segment newSegment() throws IOException {
+    while (!segments.isEmpty() && (long) (segments.size() + 1) * segmentSize > maxBytes) {
+      long used = (long) segments.size() * segmentSize;
+      if (segments.size() > 1 && liveBytes < used / 2 && !compacting) {
+        compact();
+        if ((long) (segments.size() + 1) * segmentSize <= maxBytes) {
+          break;
+        }
+      }
+      evict(segments.remove(0));
+    }
+    Path file = directory.resolve(SEGMENT_PREFIX + nextSegmentId + SEGMENT_SUFFIX);
+    Segment segment = new Segment(file, nextSegmentId++, segmentSize);
+    segments.add(segment);
+    return segment;
+  }
+
+  private void evict(Segment segment) {
+    Iterator<Location> locations = index.values().iterator();
+    while (locations.hasNext()) {
+      Location location = locations.next();
+      if (location.segment == segment) {
+        liveBytes -= location.length;
+        locations.remove();
+        stats.recordEviction();
+      }
+    }
+    drop(segment);
+  }
+
+  /**
+   * Unmaps segment and deletes its file. Segment must not be referenced by index anymore.
+   */
+  private void drop(Segment segment) {
+    segment.unmap();
+    try {
+      Files.deleteIfExists(segment.file);
+    } catch (IOException e) {
+      log.warn("Failed to delete cache segment {}", segment.file, e);
+    }
+  }
+
+  private static byte[] encode(byte type, String key, CachedResponse response) {
+    byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+    byte[] etag = bytes(response == null ? null : response.getEtag());
+    byte[] lastModified = bytes(response == null ? null : response.getLastModified());
+    byte[] vary = bytes(response == null ? null : response.getVary());
+    byte[] varyDigest = bytes(response == null ? null : response.getVaryDigest());
+    byte[] body = response == null ? new byte[0] : response.getBodyBytes();
+    int length = 0;
+    if (response != null) {
+      length += 4 + 8 + 4 + etag.length + 4 + lastModified.length + 4 + vary.length + 4
+          + varyDigest.length + 4 + body.length;
+    }
+    ByteBuffer record = record(type, keyBytes, length);
+    if (response != null) {
+      record.putInt(response.getStatusCode());
+      record.putLong(response.getExpiresAt());
+      putNullable(record, etag);
+      putNullable(record, lastModified);
+      putNullable(record, vary);
+      putNullable(record, varyDigest);
+      record.putInt(body.length).put(body);
+    }
+    return seal(record);
+  }
+
+  /**
+   * Allocates record with type and key written, positioned at start of its content.
+   */
+  private static ByteBuffer record(byte type, byte[] keyBytes, int contentLength) {
+    ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + 1 + 4 + keyBytes.length
+                                                + contentLength);
+    record.position(HEADER_SIZE);
+    record.put(type);
+    record.putInt(keyBytes.length).put(keyBytes);
+    return record;
+  }
+
+  /**
+   * Writes header with length and checksum of record.
+   */
+  private static byte[] seal(ByteBuffer record) {
+    ByteBuffer payload = record.duplicate();
+    payload.position(HEADER_SIZE).limit(record.capacity());
+    record.putInt(0, MAGIC).putInt(4, record.capacity() - HEADER_SIZE)
+        .putInt(8, checksum(payload));
+    return record.array();
+  }
+
+  private static CachedResponse readEntry(ByteBuffer payload) {
+    int statusCode = payload.getInt();
+    long expiresAt = payload.getLong();
+    String etag = readNullable(payload);
+    String lastModified = readNullable(payload);
+    String vary = readNullable(payload);
+    String varyDigest = readNullable(payload);
+    byte[] body = new byte[payload.getInt()];
+    payload.get(body);
+    return new CachedResponse(statusCode, body, etag, lastModified, expiresAt, vary, varyDigest);
+  }
+
+  private static int checksum(ByteBuffer payload) {
+    CRC32 crc = new CRC32();
+    crc.update(payload);
+    return (int) crc.getValue();
+  }
+
+  private static byte[] bytes(String value) {
+    return value == null ? new byte[]{} : value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static void putNullable(ByteBuffer record, byte[] value) {
+    record.putInt(value.length == 0 ? -1 : value.length).put(value);
+  }
+
+  private static String readNullable(ByteBuffer payload) {
+    int length = payload.getInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] value = new byte[length];
+    payload.get(value);
+    return new String(value, StandardCharsets.UTF_8);
+  }
+
+  private static String readString(ByteBuffer payload) {
+    byte[] value = new byte[payload.getInt()];
+    payload.get(value);
+    return new String(value, StandardCharsets.UTF_8);
+  }
+
+  private static void skipString(ByteBuffer payload) {
+    int length = payload.getInt();
+    payload.position(payload.position() + length);
+  }
+
+  private static long segmentId(Path file) {
+    String name = file.getFileName().toString();
+    try {
+      return Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                                           name.length() - SEGMENT_SUFFIX.length()
+      ));
+    } catch (RuntimeException e) {
+      return -1;
+    }
+  }
+
+  private static class Segment {
+
+    private final Path file;
+
+    private final long id;
+
+    private final MappedByteBuffer buffer;
+
+    private int position;
+
+    private Segment(Path file, long id, int size) throws IOException {
+      this.file = file;
+      this.id = id;
+      try (RandomAccessFile randomAccessFile = new RandomAccessFile(file.toFile(), "rw");
+          FileChannel channel = randomAccessFile.getChannel()) {
+        if (randomAccessFile.length() < size) {
+          randomAccessFile.setLength(size);
+        }
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, randomAccessFile.length());
+      }
+    }
+
+    private int remaining() {
+      return buffer.capacity() - position;
+    }
+
+    private void write(byte[] record) {
+      ByteBuffer target = buffer.duplicate();
+      target.position(position);
+      target.put(record);
+      position += record.length;
+    }
+
+    /**
+     * Clears rest of segment after last valid record, so damaged records can't be read after new
+     * records are appended.
+     */
+    private void clearTail() {
+      ByteBuffer target = buffer.duplicate();
+      target.position(position);
+      byte[] zeros = new byte[Math.min(target.remaining(), 64 * 1024)];
+      while (target.hasRemaining()) {
+        target.put(zeros, 0, Math.min(zeros.length, target.remaining()));
+      }
+      buffer.force();
+    }
+
+    private ByteBuffer read(int offset, int length) {
+      ByteBuffer source = buffer.duplicate();
+      source.position(offset).limit(offset + length);
+      return source.slice();
+    }
+
+    /**
+     * Releases mapping at once instead of waiting for GC, so file handle and address space are
+     * freed and file can be deleted on Windows. Buffer must not be accessed afterwards.
+     */
+    private void unmap() {
+      if (INVOKE_CLEANER == null) {
+        return;
+      }
+      try {
+        INVOKE_CLEANER.invoke(UNSAFE, buffer);
+      } catch (ReflectiveOperationException e) {
+        log.debug("Failed to unmap cache segment {}", file, e);
+      }
+    }
+  }
+
+  private static class Location {
+
+    private static final long STORED = Long.MIN_VALUE;
+
+    private final Segment segment;
+
+    private final int offset;
+
+    private final int length;
+
+    /**
+     * Expiration time updated after record was written or {@link #STORED}.
+     */
+    private long expiresAt = STORED;
+
+    private Location(Segment segment, int offset, int length) {
+      this.segment = segment;
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+}
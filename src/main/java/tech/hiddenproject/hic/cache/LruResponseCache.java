@@ -0,0 +1,73 @@
+package tech.hiddenproject.hic.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory {@link ResponseCache} bounded by total size of stored bodies. Least recently used
+ * responses are evicted first.
+ *
+ * @author Danila Rassokhin
+ */
+public class LruResponseCache implements ResponseCache {
+
+  private final long maxBytes;
+
+  private final Map<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  private final CacheStats stats = new CacheStats();
+
+  private long bytes;
+
+  /**
+   * @param maxBytes Max total size of stored response bodies
+   */
+  public LruResponseCache(long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  @Override
+  public synchronized CachedResponse get(String key) {
+    return entries.get(key);
+  }
+
+  @Override
+  public synchronized void put(String key, CachedResponse response) {
+    if (response.weight() > maxBytes) {
+      remove(key);
+      return;
+    }
+    CachedResponse previous = entries.put(key, response);
+    if (previous != null) {
+      bytes -= previous.weight();
+    }
+    bytes += response.weight();
+    Iterator<CachedResponse> eldest = entries.values().iterator();
+    while (bytes > maxBytes) {
+      bytes -= eldest.next().weight();
+      eldest.remove();
+      stats.recordEviction();
+    }
+  }
+
+  @Override
+  public synchronized void remove(String key) {
+    CachedResponse previous = entries.remove(key);
+    if (previous != null) {
+      bytes -= previous.weight();
+    }
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return stats;
+  }
+
+  /**
+   * @return Total size of stored response bodies
+   */
+  public synchronized long size() {
+    return bytes;
+  }
+}
@@ -0,0 +1,34 @@
+package tech.hiddenproject.hic.cache;
+
+/**
+ * Stores responses of {@link tech.hiddenproject.hic.annotation.Cacheable} methods.
+ *
+ * @author Danila Rassokhin
+ */
+public interface ResponseCache {
+
+  /**
+   * @param key Request method and resolved uri
+   * @return Stored response or null
+   */
+  CachedResponse get(String key);
+
+  /**
+   * Stores response, replacing previous one for this key.
+   *
+   * @param key      Request method and resolved uri
+   * @param response Response to store
+   */
+  void put(String key, CachedResponse response);
+
+  /**
+   * @param key Request method and resolved uri
+   */
+  void remove(String key);
+
+  /**
+   * @return {@link CacheStats} of this cache
+   */
+  CacheStats getStats();
+
+}
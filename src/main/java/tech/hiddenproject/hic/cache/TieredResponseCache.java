@@ -0,0 +1,52 @@
+package tech.hiddenproject.hic.cache;
+
+/**
+ * Two-level {@link ResponseCache}: responses are looked up in first level, usually
+ * {@link LruResponseCache}, and then in second level, usually {@link DiskResponseCache}. Responses
+ * found in second level are copied to first one.
+ *
+ * @author Danila Rassokhin
+ */
+public class TieredResponseCache implements ResponseCache {
+
+  private final ResponseCache first;
+
+  private final ResponseCache second;
+
+  private final CacheStats stats = new CacheStats();
+
+  public TieredResponseCache(ResponseCache first, ResponseCache second) {
+    this.first = first;
+    this.second = second;
+  }
+
+  @Override
+  public CachedResponse get(String key) {
+    CachedResponse response = first.get(key);
+    if (response != null) {
+      return response;
+    }
+    response = second.get(key);
+    if (response != null) {
+      first.put(key, response);
+    }
+    return response;
+  }
+
+  @Override
+  public void put(String key, CachedResponse response) {
+    first.put(key, response);
+    second.put(key, response);
+  }
+
+  @Override
+  public void remove(String key) {
+    first.remove(key);
+    second.remove(key);
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return stats;
+  }
+}
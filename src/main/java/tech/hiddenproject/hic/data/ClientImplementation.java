@@ -0,0 +1,21 @@
+package tech.hiddenproject.hic.data;
+
+/**
+ * Defines how {@link tech.hiddenproject.hic.WebClient} implements client interface.
+ *
+ * @author Danila Rassokhin
+ */
+public enum ClientImplementation {
+
+  /**
+   * {@link java.lang.reflect.Proxy} with {@link tech.hiddenproject.hic.RequestInvocationInterceptor}.
+   */
+  PROXY,
+
+  /**
+   * Class generated at runtime with Byte Buddy. Falls back to {@link #PROXY} if Byte Buddy is not
+   * available.
+   */
+  RUNTIME_GENERATED
+
+}
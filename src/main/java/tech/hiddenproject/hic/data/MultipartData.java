@@ -1,5 +1,9 @@
 package tech.hiddenproject.hic.data;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
 /**
  * @author Danila Rassokhin
  */
@@ -11,4 +15,21 @@ public interface MultipartData {
 
   String getType();
 
+  /**
+   * Opens stream with part content. Default implementation wraps {@link #serialize()}.
+   *
+   * @return Stream with part content. Closed by caller
+   * @throws IOException if content can't be read
+   */
+  default InputStream open() throws IOException {
+    return new ByteArrayInputStream(serialize());
+  }
+
+  /**
+   * @return Size of part content in bytes or -1 if it is unknown
+   */
+  default long size() {
+    return -1;
+  }
+
 }
@@ -0,0 +1,29 @@
+package tech.hiddenproject.hic.data;
+
+/**
+ * Line-oriented formats of endless responses, which are decoded event by event.
+ *
+ * @author Danila Rassokhin
+ */
+public enum StreamFormat {
+
+  /**
+   * Newline-delimited JSON, each non-empty line is one element.
+   */
+  NDJSON("application/x-ndjson"),
+
+  /**
+   * Server-Sent Events, data of each event is one element.
+   */
+  SSE("text/event-stream");
+
+  final String mediaType;
+
+  StreamFormat(String mediaType) {
+    this.mediaType = mediaType;
+  }
+
+  public String getMediaType() {
+    return mediaType;
+  }
+}
@@ -1,6 +1,7 @@
 package tech.hiddenproject.hic.data.impl;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import tech.hiddenproject.hic.data.MultipartData;
@@ -26,6 +27,20 @@ public class MultipartFile implements MultipartData {
     }
   }
 
+  @Override
+  public InputStream open() throws IOException {
+    return Files.newInputStream(file);
+  }
+
+  @Override
+  public long size() {
+    try {
+      return Files.size(file);
+    } catch (IOException e) {
+      throw new HttpClientException(e);
+    }
+  }
+
   @Override
   public String getName() {
     return file.getFileName().toString();
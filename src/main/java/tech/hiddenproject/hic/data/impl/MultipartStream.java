@@ -0,0 +1,73 @@
+package tech.hiddenproject.hic.data.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import tech.hiddenproject.hic.data.MultipartData;
+import tech.hiddenproject.hic.exception.HttpClientException;
+
+/**
+ * {@link MultipartData} which reads content from stream when request is sent.
+ *
+ * @author Danila Rassokhin
+ */
+public class MultipartStream implements MultipartData {
+
+  private final StreamSupplier stream;
+
+  private final String name;
+
+  private final String type;
+
+  private final long size;
+
+  /**
+   * @param stream Supplier to open content stream
+   * @param name   File name
+   * @param type   Content type
+   * @param size   Content size in bytes or -1 if it is unknown
+   */
+  public MultipartStream(StreamSupplier stream, String name, String type, long size) {
+    this.stream = stream;
+    this.name = name;
+    this.type = type;
+    this.size = size;
+  }
+
+  @Override
+  public byte[] serialize() {
+    try (InputStream content = open()) {
+      return content.readAllBytes();
+    } catch (IOException e) {
+      throw new HttpClientException(e);
+    }
+  }
+
+  @Override
+  public InputStream open() throws IOException {
+    return stream.open();
+  }
+
+  @Override
+  public long size() {
+    return size;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String getType() {
+    return type;
+  }
+
+  /**
+   * Opens content stream.
+   */
+  public interface StreamSupplier {
+
+    InputStream open() throws IOException;
+  }
+}
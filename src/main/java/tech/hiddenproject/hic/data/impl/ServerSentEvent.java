@@ -0,0 +1,57 @@
+package tech.hiddenproject.hic.data.impl;
+
+/**
+ * Single event of {@link tech.hiddenproject.hic.data.StreamFormat#SSE} response. Use it as element
+ * type to receive events without decoding their data.
+ *
+ * @author Danila Rassokhin
+ */
+public class ServerSentEvent {
+
+  private final String id;
+
+  private final String event;
+
+  private final String data;
+
+  private final Long retry;
+
+  public ServerSentEvent(String id, String event, String data, Long retry) {
+    this.id = id;
+    this.event = event;
+    this.data = data;
+    this.retry = retry;
+  }
+
+  public String id() {
+    return id;
+  }
+
+  /**
+   * @return Event type, "message" if it is not set by server
+   */
+  public String event() {
+    return event;
+  }
+
+  public String data() {
+    return data;
+  }
+
+  /**
+   * @return Reconnection time in milliseconds or null
+   */
+  public Long retry() {
+    return retry;
+  }
+
+  @Override
+  public String toString() {
+    return "ServerSentEvent{" +
+        "id='" + id + '\'' +
+        ", event='" + event + '\'' +
+        ", data='" + data + '\'' +
+        ", retry=" + retry +
+        '}';
+  }
+}
@@ -1,6 +1,14 @@
 package tech.hiddenproject.hic.decoder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import tech.hiddenproject.hic.exception.DecodeException;
+import tech.hiddenproject.hic.util.Types;
 
 /**
  * Decodes raw http response into Java object.
@@ -19,4 +27,43 @@ public interface BodyDecoder {
    */
   <T> T decode(String rawBody, Type targetClass);
 
+  /**
+   * Decodes http response body stream into Java object. Default implementation reads whole body
+   * into string and calls {@link #decode(String, Type)}.
+   *
+   * @param body        Http response body. Closed by caller
+   * @param targetClass Target Java type
+   * @param <T>         Decoded type
+   * @return Decoded response
+   */
+  default <T> T decode(InputStream body, Type targetClass) {
+    try {
+      return decode(new String(body.readAllBytes(), StandardCharsets.UTF_8), targetClass);
+    } catch (IOException e) {
+      throw new DecodeException(e);
+    }
+  }
+
+  /**
+   * Decodes http response body with array of elements lazily, one element at a time. Default
+   * implementation decodes whole body into {@link List}.
+   *
+   * @param body        Http response body. Closed by caller
+   * @param elementType Type of array elements
+   * @param <T>         Element type
+   * @return Iterator over decoded elements
+   */
+  default <T> Iterator<T> decodeElements(InputStream body, Type elementType) {
+    List<T> elements = decode(body, Types.parameterized(List.class, elementType));
+    return elements == null ? Collections.emptyIterator() : elements.iterator();
+  }
+
+  /**
+   * @return true if {@link #decode(InputStream, Type)} decodes body without buffering it, so
+   * responses can be received as stream
+   */
+  default boolean isStreaming() {
+    return false;
+  }
+
 }
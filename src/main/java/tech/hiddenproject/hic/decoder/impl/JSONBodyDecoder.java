@@ -1,7 +1,18 @@
 package tech.hiddenproject.hic.decoder.impl;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import tech.hiddenproject.hic.decoder.BodyDecoder;
 
 /**
@@ -13,6 +24,21 @@ public class JSONBodyDecoder implements BodyDecoder {
 
   private static final Gson GSON = new Gson();
 
+  private final boolean streaming;
+
+  public JSONBodyDecoder() {
+    this(false);
+  }
+
+  /**
+   * @param streaming true to decode whole response bodies while they are received. Reading then
+   *                  blocks thread which decodes response, so it is worth for large bodies only.
+   *                  {@code Stream} and {@code Flow.Publisher} results are streamed anyway
+   */
+  public JSONBodyDecoder(boolean streaming) {
+    this.streaming = streaming;
+  }
+
   public static String encode(Object entity) {
     return GSON.toJson(entity);
   }
@@ -21,4 +47,52 @@ public class JSONBodyDecoder implements BodyDecoder {
   public <T> T decode(String rawBody, Type targetClass) {
     return GSON.fromJson(rawBody, targetClass);
   }
+
+  @Override
+  public <T> T decode(InputStream body, Type targetClass) {
+    return GSON.fromJson(new InputStreamReader(body, StandardCharsets.UTF_8), targetClass);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> Iterator<T> decodeElements(InputStream body, Type elementType) {
+    JsonReader reader = GSON.newJsonReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    try {
+      reader.beginArray();
+    } catch (IOException e) {
+      throw new JsonIOException(e);
+    } catch (IllegalStateException e) {
+      throw new JsonSyntaxException(e);
+    }
+    TypeAdapter<T> adapter = (TypeAdapter<T>) GSON.getAdapter(TypeToken.get(elementType));
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        try {
+          return reader.hasNext();
+        } catch (IOException e) {
+          throw new JsonIOException(e);
+        }
+      }
+
+      @Override
+      public T next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        try {
+          return adapter.read(reader);
+        } catch (IOException e) {
+          throw new JsonIOException(e);
+        } catch (IllegalStateException e) {
+          throw new JsonSyntaxException(e);
+        }
+      }
+    };
+  }
+
+  @Override
+  public boolean isStreaming() {
+    return streaming;
+  }
 }
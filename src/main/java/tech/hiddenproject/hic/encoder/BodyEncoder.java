@@ -1,5 +1,9 @@
 package tech.hiddenproject.hic.encoder;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
 /**
  * @author Danila Rassokhin
  */
@@ -13,4 +17,24 @@ public interface BodyEncoder {
    */
   String encode(Object obj);
 
+  /**
+   * Encodes Java object into stream. Default implementation writes result of
+   * {@link #encode(Object)} as UTF-8.
+   *
+   * @param obj    Object to encode
+   * @param output Stream to write encoded object to
+   * @throws IOException if stream can't be written
+   */
+  default void encode(Object obj, OutputStream output) throws IOException {
+    output.write(encode(obj).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @return true if request body should be encoded lazily with
+   * {@link #encode(Object, OutputStream)}, without building whole body in memory
+   */
+  default boolean isStreaming() {
+    return false;
+  }
+
 }
@@ -0,0 +1,160 @@
+package tech.hiddenproject.hic.encoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+import tech.hiddenproject.hic.exception.HttpClientException;
+import tech.hiddenproject.hic.executor.SharedExecutor;
+
+/**
+ * {@link BodyPublisher} which encodes request body lazily, when http client requests it. Body is
+ * written by {@link BodyEncoder#encode(Object, java.io.OutputStream)} into fixed size chunks and
+ * encoding waits while subscriber has no demand, so only a few chunks are kept in memory.
+ *
+ * @author Danila Rassokhin
+ */
+public class EncodingBodyPublisher implements BodyPublisher {
+
+  /**
+   * Size of single published chunk.
+   */
+  public static final int CHUNK_SIZE = 16 * 1024;
+
+  private final BodyEncoder bodyEncoder;
+
+  private final Object body;
+
+  private final Executor executor;
+
+  /**
+   * @param bodyEncoder {@link BodyEncoder} to encode body
+   * @param body        Request body
+   * @param executor    Executor to run encoding on, or null to use {@link SharedExecutor}
+   */
+  public EncodingBodyPublisher(BodyEncoder bodyEncoder, Object body, Executor executor) {
+    this.bodyEncoder = bodyEncoder;
+    this.body = body;
+    this.executor = executor == null ? SharedExecutor.get() : executor;
+  }
+
+  @Override
+  public long contentLength() {
+    return -1;
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super ByteBuffer> subscriber) {
+    subscriber.onSubscribe(new ChunkSubscription(subscriber));
+  }
+
+  private class ChunkSubscription extends OutputStream implements Subscription {
+
+    private final Subscriber<? super ByteBuffer> subscriber;
+
+    private long demand;
+
+    private boolean started;
+
+    private boolean cancelled;
+
+    private byte[] chunk = new byte[CHUNK_SIZE];
+
+    private int position;
+
+    private ChunkSubscription(Subscriber<? super ByteBuffer> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        cancel();
+        subscriber.onError(new IllegalArgumentException("Non-positive request: " + n));
+        return;
+      }
+      boolean start;
+      synchronized (this) {
+        demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+        start = !started;
+        started = true;
+        notifyAll();
+      }
+      if (start) {
+        executor.execute(this::encode);
+      }
+    }
+
+    @Override
+    public synchronized void cancel() {
+      cancelled = true;
+      notifyAll();
+    }
+
+    private void encode() {
+      try {
+        bodyEncoder.encode(body, this);
+        emit();
+        if (!isCancelled()) {
+          subscriber.onComplete();
+        }
+      } catch (IOException | RuntimeException e) {
+        if (!isCancelled()) {
+          subscriber.onError(e);
+        }
+      }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      if (position == chunk.length) {
+        emit();
+      }
+      chunk[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+      while (length > 0) {
+        if (position == chunk.length) {
+          emit();
+        }
+        int count = Math.min(length, chunk.length - position);
+        System.arraycopy(bytes, offset, chunk, position, count);
+        position += count;
+        offset += count;
+        length -= count;
+      }
+    }
+
+    private void emit() throws IOException {
+      if (position == 0) {
+        return;
+      }
+      synchronized (this) {
+        while (demand == 0 && !cancelled) {
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpClientException(e);
+          }
+        }
+        if (cancelled) {
+          throw new IOException("Request body subscription cancelled");
+        }
+        demand--;
+      }
+      subscriber.onNext(ByteBuffer.wrap(chunk, 0, position));
+      chunk = new byte[CHUNK_SIZE];
+      position = 0;
+    }
+
+    private synchronized boolean isCancelled() {
+      return cancelled;
+    }
+  }
+}
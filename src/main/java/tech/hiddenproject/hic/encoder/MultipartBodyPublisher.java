@@ -0,0 +1,120 @@
+package tech.hiddenproject.hic.encoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.ThreadLocalRandom;
+import tech.hiddenproject.hic.data.MultipartData;
+
+/**
+ * {@link BodyPublisher} for multipart/form-data requests. Part headers and boundaries are kept as
+ * small byte chunks, part content is read from {@link MultipartData#open()} only when http client
+ * sends it, so memory doesn't depend on parts size. Content length is known if all parts report
+ * their {@link MultipartData#size()}.
+ *
+ * @author Danila Rassokhin
+ */
+public class MultipartBodyPublisher implements BodyPublisher {
+
+  private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.UTF_8);
+
+  private final String boundary;
+
+  private final List<Object> chunks = new ArrayList<>();
+
+  private final long contentLength;
+
+  /**
+   * @param data Parts by name
+   */
+  public MultipartBodyPublisher(Map<String, MultipartData> data) {
+    this.boundary = new BigInteger(35, ThreadLocalRandom.current()).toString();
+    long length = 0;
+    for (Entry<String, MultipartData> part : data.entrySet()) {
+      MultipartData multipartData = part.getValue();
+      String type = multipartData.getType() == null ? "application/octet-stream"
+          : multipartData.getType();
+      byte[] header = ("--" + boundary + "\r\nContent-Disposition: form-data; name=\""
+          + part.getKey() + "\"; filename=\"" + multipartData.getName()
+          + "\"\r\nContent-Type: " + type + "\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+      chunks.add(header);
+      chunks.add(multipartData);
+      chunks.add(CRLF);
+      long size = multipartData.size();
+      length = length < 0 || size < 0 ? -1 : length + header.length + size + CRLF.length;
+    }
+    byte[] end = ("--" + boundary + "--").getBytes(StandardCharsets.UTF_8);
+    chunks.add(end);
+    this.contentLength = length < 0 ? -1 : length + end.length;
+  }
+
+  /**
+   * @return Value of Content-Type header with boundary
+   */
+  public String contentType() {
+    return "multipart/form-data; boundary=" + boundary;
+  }
+
+  @Override
+  public long contentLength() {
+    return contentLength;
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super ByteBuffer> subscriber) {
+    BodyPublisher stream = BodyPublishers.ofInputStream(
+        () -> new SequenceInputStream(new ChunkEnumeration(chunks.iterator())));
+    if (contentLength > 0) {
+      stream = BodyPublishers.fromPublisher(stream, contentLength);
+    }
+    stream.subscribe(subscriber);
+  }
+
+  /**
+   * Opens streams of parts lazily, one after another.
+   */
+  private static class ChunkEnumeration implements Enumeration<InputStream> {
+
+    private final Iterator<Object> chunks;
+
+    private ChunkEnumeration(Iterator<Object> chunks) {
+      this.chunks = chunks;
+    }
+
+    @Override
+    public boolean hasMoreElements() {
+      return chunks.hasNext();
+    }
+
+    @Override
+    public InputStream nextElement() {
+      if (!chunks.hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Object chunk = chunks.next();
+      if (chunk instanceof byte[]) {
+        return new ByteArrayInputStream((byte[]) chunk);
+      }
+      try {
+        return ((MultipartData) chunk).open();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
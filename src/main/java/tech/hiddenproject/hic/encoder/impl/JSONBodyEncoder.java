@@ -1,6 +1,11 @@
 package tech.hiddenproject.hic.encoder.impl;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import tech.hiddenproject.hic.encoder.BodyEncoder;
 
 /**
@@ -12,8 +17,35 @@ public class JSONBodyEncoder implements BodyEncoder {
 
   private final Gson gson = new Gson();
 
+  private final boolean streaming;
+
+  public JSONBodyEncoder() {
+    this(false);
+  }
+
+  /**
+   * @param streaming true to encode request bodies lazily in chunks. Requests are sent without
+   *                  Content-Length then
+   */
+  public JSONBodyEncoder(boolean streaming) {
+    this.streaming = streaming;
+  }
+
   @Override
   public String encode(Object obj) {
     return gson.toJson(obj);
   }
+
+  @Override
+  public void encode(Object obj, OutputStream output) throws IOException {
+    JsonWriter jsonWriter = gson.newJsonWriter(
+        new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    gson.toJson(obj, obj.getClass(), jsonWriter);
+    jsonWriter.flush();
+  }
+
+  @Override
+  public boolean isStreaming() {
+    return streaming;
+  }
 }
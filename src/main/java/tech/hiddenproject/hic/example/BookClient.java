@@ -38,6 +38,9 @@ public interface BookClient {
   @GET("/book")
   CompletableFuture<List<Book>> getBooksAsync();
 
+  @GET("/book")
+  CompletableFuture<List<Book>> getBooksAsync(@Query("page") Integer page);
+
   @GET("/book/error")
   Response<List<Book>> getBooksWrapped();
 
@@ -8,4 +8,8 @@ public class DecodeException extends RuntimeException {
   public DecodeException(String message) {
     super(message);
   }
+
+  public DecodeException(Throwable cause) {
+    super(cause);
+  }
 }
@@ -0,0 +1,13 @@
+package tech.hiddenproject.hic.exception;
+
+/**
+ * Thrown when request is rejected by client side concurrency or rate limit.
+ *
+ * @author Danila Rassokhin
+ */
+public class LimitExceededException extends HttpClientException {
+
+  public LimitExceededException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,96 @@
+package tech.hiddenproject.hic.executor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link Executor} wrapper which counts queued tasks and measures their wait and run time. Use it
+ * to size executors passed to {@link tech.hiddenproject.hic.WebClient}.
+ *
+ * @author Danila Rassokhin
+ */
+public class MonitoredExecutor implements Executor {
+
+  private final Executor delegate;
+
+  private final AtomicLong queued = new AtomicLong();
+
+  private final LongAdder completed = new LongAdder();
+
+  private final LongAdder waitNanos = new LongAdder();
+
+  private final LongAdder taskNanos = new LongAdder();
+
+  private final AtomicLong maxTaskNanos = new AtomicLong();
+
+  public MonitoredExecutor(Executor delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    long submitted = System.nanoTime();
+    queued.incrementAndGet();
+    try {
+      delegate.execute(() -> {
+        long started = System.nanoTime();
+        queued.decrementAndGet();
+        waitNanos.add(started - submitted);
+        try {
+          command.run();
+        } finally {
+          long duration = System.nanoTime() - started;
+          taskNanos.add(duration);
+          maxTaskNanos.accumulateAndGet(duration, Math::max);
+          completed.increment();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      queued.decrementAndGet();
+      throw e;
+    }
+  }
+
+  /**
+   * @return Count of tasks submitted, but not started yet
+   */
+  public long getQueueDepth() {
+    return queued.get();
+  }
+
+  /**
+   * @return Count of finished tasks
+   */
+  public long getCompletedTasks() {
+    return completed.sum();
+  }
+
+  /**
+   * @return Average time tasks spent in queue in nanoseconds
+   */
+  public long getAverageWaitNanos() {
+    long count = completed.sum();
+    return count == 0 ? 0 : waitNanos.sum() / count;
+  }
+
+  /**
+   * @return Average task run time in nanoseconds
+   */
+  public long getAverageTaskNanos() {
+    long count = completed.sum();
+    return count == 0 ? 0 : taskNanos.sum() / count;
+  }
+
+  /**
+   * @return Longest task run time in nanoseconds
+   */
+  public long getMaxTaskNanos() {
+    return maxTaskNanos.get();
+  }
+
+  public Executor getDelegate() {
+    return delegate;
+  }
+}
@@ -0,0 +1,45 @@
+package tech.hiddenproject.hic.executor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared pool of daemon threads for client tasks which may block on I/O, like lazy body encoding
+ * or streaming response decoding, when no executor is configured for them.
+ *
+ * @author Danila Rassokhin
+ */
+public class SharedExecutor {
+
+  private static final AtomicInteger COUNTER = new AtomicInteger();
+
+  private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+    Thread thread = new Thread(runnable, "hic-worker-" + COUNTER.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private static final ScheduledExecutorService SCHEDULER =
+      Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hic-scheduler");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  /**
+   * @return Shared executor
+   */
+  public static ExecutorService get() {
+    return EXECUTOR;
+  }
+
+  /**
+   * @return Shared scheduler for delayed client tasks. Tasks must be short and must not block
+   */
+  public static ScheduledExecutorService scheduler() {
+    return SCHEDULER;
+  }
+
+}
@@ -0,0 +1,55 @@
+package tech.hiddenproject.hic.executor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads on Java 21+, while library is compiled for Java 11.
+ *
+ * @author Danila Rassokhin
+ */
+public class VirtualThreads {
+
+  private static final MethodHandle NEW_EXECUTOR = findFactory();
+
+  private static MethodHandle findFactory() {
+    try {
+      MethodHandle factory = MethodHandles.publicLookup().findStatic(
+          Executors.class, "newVirtualThreadPerTaskExecutor",
+          MethodType.methodType(ExecutorService.class)
+      );
+      ((ExecutorService) factory.invoke()).shutdown();
+      return factory;
+    } catch (Throwable e) {
+      return null;
+    }
+  }
+
+  /**
+   * @return true if current JVM supports virtual threads
+   */
+  public static boolean isAvailable() {
+    return NEW_EXECUTOR != null;
+  }
+
+  /**
+   * Creates executor which starts new virtual thread for each task.
+   *
+   * @return Executor or empty if virtual threads are not supported
+   */
+  public static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+    if (NEW_EXECUTOR == null) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of((ExecutorService) NEW_EXECUTOR.invoke());
+    } catch (Throwable e) {
+      return Optional.empty();
+    }
+  }
+
+}
@@ -0,0 +1,256 @@
+package tech.hiddenproject.hic.hedging;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import tech.hiddenproject.hic.annotation.Hedged;
+import tech.hiddenproject.hic.executor.SharedExecutor;
+
+/**
+ * Sends second identical request if response doesn't arrive within delay and completes call with
+ * successful response which comes first. Response of other request is cancelled or discarded.
+ * Unsuccessful response is used only if other request doesn't succeed.
+ *
+ * <p>Delay is fixed or taken from percentile of latencies of all completed requests, including
+ * extra and discarded ones. Extra requests are limited by budget: each call adds {@code budget}
+ * tokens, up to 10, and each extra request takes one token, so in the long run they are at most
+ * {@code budget} share of calls.
+ *
+ * @author Danila Rassokhin
+ */
+public class HedgingPolicy {
+
+  private static final long TOKEN = 1000;
+
+  private static final long MAX_TOKENS = 10 * TOKEN;
+
+  private final long delayNanos;
+
+  private final LatencyTracker latencyTracker;
+
+  private final long deposit;
+
+  private final AtomicLong tokens = new AtomicLong();
+
+  private final HedgingStats stats = new HedgingStats();
+
+  private HedgingPolicy(long delayMillis, double percentile, double budget) {
+    this.delayNanos = TimeUnit.MILLISECONDS.toNanos(delayMillis);
+    this.latencyTracker = percentile > 0 ? new LatencyTracker(percentile) : null;
+    this.deposit = (long) (budget * TOKEN);
+  }
+
+  /**
+   * Creates policy with fixed delay.
+   *
+   * @param delayMillis Delay before second request
+   * @param budget      Max ratio of extra requests to all requests, like 0.1
+   * @return {@link HedgingPolicy}
+   */
+  public static HedgingPolicy fixed(long delayMillis, double budget) {
+    return new HedgingPolicy(delayMillis, 0, budget);
+  }
+
+  /**
+   * Creates policy which uses percentile of observed latencies as delay.
+   *
+   * @param percentile         Percentile, like 95
+   * @param initialDelayMillis Delay used until enough latencies are observed
+   * @param budget             Max ratio of extra requests to all requests, like 0.1
+   * @return {@link HedgingPolicy}
+   */
+  public static HedgingPolicy percentile(double percentile, long initialDelayMillis,
+                                         double budget) {
+    return new HedgingPolicy(initialDelayMillis, percentile, budget);
+  }
+
+  /**
+   * Creates policy from {@link Hedged} annotation.
+   *
+   * @param hedged {@link Hedged}
+   * @return {@link HedgingPolicy}
+   */
+  public static HedgingPolicy of(Hedged hedged) {
+    return new HedgingPolicy(hedged.delay(), hedged.percentile(), hedged.budget());
+  }
+
+  /**
+   * Performs hedged call, every response is successful.
+   *
+   * @param attempt Sends request
+   * @param discard Releases response which was not used
+   * @param <T>     Response type
+   * @return Future with first response
+   */
+  public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> attempt,
+                                          Consumer<T> discard) {
+    return execute(attempt, value -> true, discard);
+  }
+
+  /**
+   * Performs hedged call.
+   *
+   * @param attempt    Sends request
+   * @param successful Tests if response can complete call
+   * @param discard    Releases response which was not used
+   * @param <T>        Response type
+   * @return Future with first successful response, or unsuccessful one if no request succeeded
+   */
+  public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> attempt,
+                                          Predicate<T> successful, Consumer<T> discard) {
+    stats.recordRequest();
+    tokens.getAndUpdate(current -> Math.min(MAX_TOKENS, current + deposit));
+    long start = System.nanoTime();
+    Attempts<T> attempts = new Attempts<>(successful, discard);
+    CompletableFuture<T> result = attempts.result;
+    AtomicReference<CompletableFuture<T>> hedge = new AtomicReference<>();
+    CompletableFuture<T> primary = attempt.get();
+    ScheduledFuture<?> timer = SharedExecutor.scheduler().schedule(() -> {
+      if (result.isDone()) {
+        return;
+      }
+      if (!tryAcquireToken()) {
+        stats.recordThrottled();
+        return;
+      }
+      stats.recordHedge();
+      attempts.outstanding.incrementAndGet();
+      SharedExecutor.get().execute(() -> {
+        long hedgeStart = System.nanoTime();
+        CompletableFuture<T> second;
+        try {
+          second = attempt.get();
+        } catch (RuntimeException e) {
+          second = CompletableFuture.failedFuture(e);
+        }
+        hedge.set(second);
+        if (result.isDone()) {
+          second.cancel(true);
+        }
+        complete(second, hedgeStart, () -> primary.cancel(true), true, attempts);
+      });
+    }, delay(), TimeUnit.NANOSECONDS);
+    complete(primary, start, () -> {
+      CompletableFuture<T> second = hedge.get();
+      if (second != null) {
+        second.cancel(true);
+      }
+    }, false, attempts);
+    result.whenComplete((value, throwable) -> {
+      timer.cancel(false);
+      if (result.isCancelled()) {
+        primary.cancel(true);
+        CompletableFuture<T> second = hedge.get();
+        if (second != null) {
+          second.cancel(true);
+        }
+      }
+    });
+    return result;
+  }
+
+  public HedgingStats getStats() {
+    return stats;
+  }
+
+  /**
+   * @return Current delay before second request in nanos
+   */
+  public long delay() {
+    if (latencyTracker == null || latencyTracker.get() < 0) {
+      return delayNanos;
+    }
+    return latencyTracker.get();
+  }
+
+  /**
+   * Completes call with response of attempt if it is successful. Latency of each completed attempt
+   * is recorded from its own start, so percentile is not biased towards fast responses.
+   */
+  private <T> void complete(CompletableFuture<T> attempt, long start, Runnable cancelOther,
+                            boolean isHedge, Attempts<T> attempts) {
+    attempt.whenComplete((value, throwable) -> {
+      if (throwable == null && latencyTracker != null) {
+        latencyTracker.record(System.nanoTime() - start);
+      }
+      if (throwable != null || !attempts.successful.test(value)) {
+        attempts.failed(value, throwable);
+        return;
+      }
+      attempts.outstanding.decrementAndGet();
+      if (!attempts.result.complete(value)) {
+        attempts.discard.accept(value);
+        return;
+      }
+      attempts.discardFallback();
+      if (isHedge) {
+        stats.recordWin();
+      }
+      cancelOther.run();
+    });
+  }
+
+  /**
+   * State of one hedged call.
+   */
+  private static class Attempts<T> {
+
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+
+    private final AtomicInteger outstanding = new AtomicInteger(1);
+
+    private final AtomicReference<T> fallback = new AtomicReference<>();
+
+    private final Predicate<T> successful;
+
+    private final Consumer<T> discard;
+
+    private Attempts(Predicate<T> successful, Consumer<T> discard) {
+      this.successful = successful;
+      this.discard = discard;
+    }
+
+    /**
+     * Keeps unsuccessful response as fallback and completes call with it, or with failure, when
+     * there are no other attempts in progress.
+     */
+    private void failed(T value, Throwable throwable) {
+      if (value != null && !fallback.compareAndSet(null, value)) {
+        discard.accept(value);
+      }
+      if (outstanding.decrementAndGet() != 0) {
+        return;
+      }
+      T response = fallback.getAndSet(null);
+      if (response == null) {
+        result.completeExceptionally(throwable);
+      } else if (!result.complete(response)) {
+        discard.accept(response);
+      }
+    }
+
+    private void discardFallback() {
+      T response = fallback.getAndSet(null);
+      if (response != null) {
+        discard.accept(response);
+      }
+    }
+  }
+
+  private boolean tryAcquireToken() {
+    long current;
+    do {
+      current = tokens.get();
+      if (current < TOKEN) {
+        return false;
+      }
+    } while (!tokens.compareAndSet(current, current - TOKEN));
+    return true;
+  }
+}
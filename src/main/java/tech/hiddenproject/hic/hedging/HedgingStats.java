@@ -0,0 +1,73 @@
+package tech.hiddenproject.hic.hedging;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of {@link HedgingPolicy}.
+ *
+ * @author Danila Rassokhin
+ */
+public class HedgingStats {
+
+  private final LongAdder requests = new LongAdder();
+
+  private final LongAdder hedges = new LongAdder();
+
+  private final LongAdder wins = new LongAdder();
+
+  private final LongAdder throttled = new LongAdder();
+
+  void recordRequest() {
+    requests.increment();
+  }
+
+  void recordHedge() {
+    hedges.increment();
+  }
+
+  void recordWin() {
+    wins.increment();
+  }
+
+  void recordThrottled() {
+    throttled.increment();
+  }
+
+  /**
+   * @return Count of hedged calls
+   */
+  public long getRequests() {
+    return requests.sum();
+  }
+
+  /**
+   * @return Count of extra requests sent
+   */
+  public long getHedges() {
+    return hedges.sum();
+  }
+
+  /**
+   * @return Count of calls, which got response from extra request first
+   */
+  public long getWins() {
+    return wins.sum();
+  }
+
+  /**
+   * @return Count of extra requests not sent because budget was exhausted
+   */
+  public long getThrottled() {
+    return throttled.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "HedgingStats{" +
+        "requests=" + getRequests() +
+        ", hedges=" + getHedges() +
+        ", wins=" + getWins() +
+        ", throttled=" + getThrottled() +
+        '}';
+  }
+}
@@ -0,0 +1,61 @@
+package tech.hiddenproject.hic.hedging;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps latest latency samples and estimates their percentile. Percentile is recalculated once in
+ * a number of samples, so reading it is cheap.
+ *
+ * @author Danila Rassokhin
+ */
+public class LatencyTracker {
+
+  private static final int SAMPLES = 1024;
+
+  private static final int RECALCULATE_EVERY = 64;
+
+  private final double percentile;
+
+  private final AtomicLongArray samples = new AtomicLongArray(SAMPLES);
+
+  private final AtomicLong count = new AtomicLong();
+
+  private volatile long value = -1;
+
+  /**
+   * @param percentile Percentile to estimate, from 0 to 100
+   */
+  public LatencyTracker(double percentile) {
+    this.percentile = percentile;
+  }
+
+  /**
+   * @param nanos Observed latency
+   */
+  public void record(long nanos) {
+    long index = count.getAndIncrement();
+    samples.set((int) (index % SAMPLES), nanos);
+    if ((index + 1) % RECALCULATE_EVERY == 0) {
+      recalculate(Math.min(index + 1, SAMPLES));
+    }
+  }
+
+  /**
+   * @return Estimated percentile in nanos or -1 if there are not enough samples yet
+   */
+  public long get() {
+    return value;
+  }
+
+  private void recalculate(long size) {
+    long[] sorted = new long[(int) size];
+    for (int i = 0; i < sorted.length; i++) {
+      sorted[i] = samples.get(i);
+    }
+    Arrays.sort(sorted);
+    int rank = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+    value = sorted[Math.max(0, Math.min(sorted.length - 1, rank))];
+  }
+}
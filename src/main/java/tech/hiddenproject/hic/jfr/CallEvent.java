@@ -0,0 +1,19 @@
+package tech.hiddenproject.hic.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Whole call of client interface method until its result is ready.
+ *
+ * @author Danila Rassokhin
+ */
+@Name("tech.hiddenproject.hic.Call")
+@Label("Client Call")
+@Description("Whole call of client interface method until its result is ready")
+@Threshold("10 ms")
+public class CallEvent extends ClientEvent {
+
+}
@@ -0,0 +1,76 @@
+package tech.hiddenproject.hic.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+import tech.hiddenproject.hic.MethodPlan;
+
+/**
+ * Base of JDK Flight Recorder events of {@link tech.hiddenproject.hic.WebClient} calls. Events
+ * are enabled and thresholded with usual JFR settings by their names, like
+ * {@code tech.hiddenproject.hic.Call#threshold=100 ms}.
+ *
+ * @author Danila Rassokhin
+ */
+@Category({"HTTP Interface Client"})
+@StackTrace(false)
+public abstract class ClientEvent extends jdk.jfr.Event {
+
+  @Label("Method")
+  String method;
+
+  @Label("Verb")
+  String verb;
+
+  @Label("URI Template")
+  String uriTemplate;
+
+  @Label("Status Code")
+  int statusCode = -1;
+
+  @Label("Request Size")
+  @DataAmount
+  long requestBytes = -1;
+
+  @Label("Response Size")
+  @DataAmount
+  long responseBytes = -1;
+
+  /**
+   * Sets called method, its verb and uri template.
+   *
+   * @param plan {@link MethodPlan} of called method
+   */
+  public void describe(MethodPlan plan) {
+    this.method = plan.getMethod().getDeclaringClass().getName() + "."
+        + plan.getMethod().getName();
+    this.verb = plan.getRequestMethod().name();
+    this.uriTemplate = plan.getUriTemplate().getTemplate();
+  }
+
+  public void setStatusCode(int statusCode) {
+    this.statusCode = statusCode;
+  }
+
+  public void setRequestBytes(long requestBytes) {
+    this.requestBytes = requestBytes;
+  }
+
+  public void setResponseBytes(long responseBytes) {
+    this.responseBytes = responseBytes;
+  }
+
+  /**
+   * Ends event and commits it if it is enabled and passes threshold.
+   *
+   * @param plan {@link MethodPlan} of called method
+   */
+  public void commit(MethodPlan plan) {
+    end();
+    if (shouldCommit()) {
+      describe(plan);
+      commit();
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package tech.hiddenproject.hic.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Decoding of response body.
+ *
+ * @author Danila Rassokhin
+ */
+@Name("tech.hiddenproject.hic.Decode")
+@Label("Client Decode")
+@Description("Decoding of response body")
+@Threshold("10 ms")
+public class DecodeEvent extends ClientEvent {
+
+}
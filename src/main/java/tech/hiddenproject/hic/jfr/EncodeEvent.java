@@ -0,0 +1,19 @@
+package tech.hiddenproject.hic.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Encoding of request body.
+ *
+ * @author Danila Rassokhin
+ */
+@Name("tech.hiddenproject.hic.Encode")
+@Label("Client Encode")
+@Description("Encoding of request body")
+@Threshold("10 ms")
+public class EncodeEvent extends ClientEvent {
+
+}
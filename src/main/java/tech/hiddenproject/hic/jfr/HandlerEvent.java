@@ -0,0 +1,19 @@
+package tech.hiddenproject.hic.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Dispatch of response to HttpHandlers.
+ *
+ * @author Danila Rassokhin
+ */
+@Name("tech.hiddenproject.hic.Handler")
+@Label("Client Handler")
+@Description("Dispatch of response to HttpHandlers")
+@Threshold("10 ms")
+public class HandlerEvent extends ClientEvent {
+
+}
@@ -0,0 +1,19 @@
+package tech.hiddenproject.hic.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Sending of single request attempt until response headers are received.
+ *
+ * @author Danila Rassokhin
+ */
+@Name("tech.hiddenproject.hic.Send")
+@Label("Client Send")
+@Description("Sending of single request attempt until response headers are received")
+@Threshold("10 ms")
+public class SendEvent extends ClientEvent {
+
+}
@@ -0,0 +1,41 @@
+package tech.hiddenproject.hic.limit;
+
+/**
+ * Additive increase, multiplicative decrease: limit grows by one after successful request if at
+ * least half of it is used, and is multiplied by backoff ratio after dropped request.
+ *
+ * @author Danila Rassokhin
+ */
+public class AimdLimit implements LimitAlgorithm {
+
+  private final int initialLimit;
+
+  private final int minLimit;
+
+  private final int maxLimit;
+
+  private final double backoffRatio;
+
+  public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio) {
+    this.initialLimit = initialLimit;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.backoffRatio = backoffRatio;
+  }
+
+  @Override
+  public int initialLimit() {
+    return initialLimit;
+  }
+
+  @Override
+  public int update(int limit, long rttNanos, int inFlight, boolean dropped) {
+    if (dropped) {
+      return Math.max(minLimit, (int) (limit * backoffRatio));
+    }
+    if (inFlight * 2 >= limit) {
+      return Math.min(maxLimit, limit + 1);
+    }
+    return limit;
+  }
+}
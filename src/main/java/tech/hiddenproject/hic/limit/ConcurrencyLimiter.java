@@ -0,0 +1,236 @@
+package tech.hiddenproject.hic.limit;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import tech.hiddenproject.hic.annotation.ConcurrencyLimit;
+import tech.hiddenproject.hic.exception.LimitExceededException;
+import tech.hiddenproject.hic.executor.SharedExecutor;
+
+/**
+ * Limits count of requests in progress. Limit is not fixed, it is adjusted by
+ * {@link LimitAlgorithm} from observed round trip times and failures, so it follows current
+ * capacity of server. Requests over limit wait in bounded queue or are rejected with
+ * {@link LimitExceededException} at once.
+ *
+ * @author Danila Rassokhin
+ */
+public class ConcurrencyLimiter {
+
+  private final LimitAlgorithm algorithm;
+
+  private final int maxQueue;
+
+  private final Deque<CompletableFuture<Permit>> queue = new ArrayDeque<>();
+
+  private final LongAdder rejected = new LongAdder();
+
+  private int limit;
+
+  private int inFlight;
+
+  /**
+   * @param algorithm {@link LimitAlgorithm}
+   * @param maxQueue  Max count of requests waiting for permit, 0 to reject them at once
+   */
+  public ConcurrencyLimiter(LimitAlgorithm algorithm, int maxQueue) {
+    this.algorithm = algorithm;
+    this.maxQueue = maxQueue;
+    this.limit = algorithm.initialLimit();
+  }
+
+  /**
+   * Creates limiter with {@link AimdLimit}.
+   *
+   * @param initialLimit Initial limit
+   * @param maxLimit     Max limit
+   * @param maxQueue     Max count of waiting requests
+   * @return {@link ConcurrencyLimiter}
+   */
+  public static ConcurrencyLimiter aimd(int initialLimit, int maxLimit, int maxQueue) {
+    return new ConcurrencyLimiter(new AimdLimit(initialLimit, 1, maxLimit, 0.9), maxQueue);
+  }
+
+  /**
+   * Creates limiter with {@link GradientLimit}.
+   *
+   * @param initialLimit Initial limit
+   * @param maxLimit     Max limit
+   * @param maxQueue     Max count of waiting requests
+   * @return {@link ConcurrencyLimiter}
+   */
+  public static ConcurrencyLimiter gradient(int initialLimit, int maxLimit, int maxQueue) {
+    return new ConcurrencyLimiter(new GradientLimit(initialLimit, 1, maxLimit), maxQueue);
+  }
+
+  /**
+   * Creates limiter from {@link ConcurrencyLimit} annotation.
+   *
+   * @param concurrencyLimit {@link ConcurrencyLimit}
+   * @return {@link ConcurrencyLimiter}
+   */
+  public static ConcurrencyLimiter of(ConcurrencyLimit concurrencyLimit) {
+    if (concurrencyLimit.algorithm() == Algorithm.AIMD) {
+      return aimd(concurrencyLimit.initialLimit(), concurrencyLimit.maxLimit(),
+                  concurrencyLimit.maxQueue()
+      );
+    }
+    return gradient(concurrencyLimit.initialLimit(), concurrencyLimit.maxLimit(),
+                    concurrencyLimit.maxQueue()
+    );
+  }
+
+  /**
+   * Acquires permit for request. Waiting requests get permits on {@link SharedExecutor#get()},
+   * so they are not sent on thread which completed previous request.
+   *
+   * @return Future with {@link Permit}, completed when request can be sent, or failed with
+   * {@link LimitExceededException} if limit and queue are full
+   */
+  public CompletableFuture<Permit> acquire() {
+    int current;
+    synchronized (this) {
+      if (inFlight < limit) {
+        inFlight++;
+        return CompletableFuture.completedFuture(new Permit());
+      }
+      if (queue.size() < maxQueue) {
+        CompletableFuture<Permit> waiting = new CompletableFuture<>();
+        queue.add(waiting);
+        waiting.whenComplete((permit, throwable) -> {
+          if (throwable != null) {
+            remove(waiting);
+          }
+        });
+        return waiting;
+      }
+      current = limit;
+    }
+    rejected.increment();
+    return CompletableFuture.failedFuture(new LimitExceededException(
+        "Concurrency limit " + current + " exceeded"));
+  }
+
+  /**
+   * @return Current limit
+   */
+  public synchronized int getLimit() {
+    return limit;
+  }
+
+  /**
+   * @return Count of requests in progress
+   */
+  public synchronized int getInFlight() {
+    return inFlight;
+  }
+
+  /**
+   * @return Count of requests waiting for permit
+   */
+  public synchronized int getQueued() {
+    return queue.size();
+  }
+
+  /**
+   * @return Count of rejected requests
+   */
+  public long getRejected() {
+    return rejected.sum();
+  }
+
+  private void release(long rttNanos, boolean dropped, boolean measured) {
+    List<CompletableFuture<Permit>> granted = new ArrayList<>();
+    synchronized (this) {
+      if (measured) {
+        limit = Math.max(1, algorithm.update(limit, rttNanos, inFlight, dropped));
+      }
+      inFlight--;
+      while (inFlight < limit && !queue.isEmpty()) {
+        CompletableFuture<Permit> waiting = queue.poll();
+        if (!waiting.isDone()) {
+          inFlight++;
+          granted.add(waiting);
+        }
+      }
+    }
+    for (CompletableFuture<Permit> waiting : granted) {
+      Permit permit = new Permit();
+      SharedExecutor.get().execute(() -> {
+        if (!waiting.complete(permit)) {
+          permit.release();
+        }
+      });
+    }
+  }
+
+  /**
+   * Removes waiter which was cancelled or failed by caller, so it doesn't take place in queue.
+   */
+  private synchronized void remove(CompletableFuture<Permit> waiting) {
+    queue.remove(waiting);
+  }
+
+  @Override
+  public String toString() {
+    return "ConcurrencyLimiter{" +
+        "limit=" + getLimit() +
+        ", inFlight=" + getInFlight() +
+        ", queued=" + getQueued() +
+        ", rejected=" + getRejected() +
+        '}';
+  }
+
+  /**
+   * Algorithms for {@link ConcurrencyLimit}.
+   */
+  public enum Algorithm {
+
+    /**
+     * {@link AimdLimit}.
+     */
+    AIMD,
+
+    /**
+     * {@link GradientLimit}.
+     */
+    GRADIENT
+
+  }
+
+  /**
+   * Permission to send one request. Must be released exactly once.
+   */
+  public class Permit {
+
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Permit() {
+    }
+
+    /**
+     * Releases permit and updates limit with request result.
+     *
+     * @param rttNanos Request round trip time
+     * @param dropped  true if request failed or server was overloaded
+     */
+    public void release(long rttNanos, boolean dropped) {
+      if (released.compareAndSet(false, true)) {
+        ConcurrencyLimiter.this.release(rttNanos, dropped, true);
+      }
+    }
+
+    /**
+     * Releases permit without updating limit, for requests which were cancelled.
+     */
+    public void release() {
+      if (released.compareAndSet(false, true)) {
+        ConcurrencyLimiter.this.release(0, false, false);
+      }
+    }
+  }
+}
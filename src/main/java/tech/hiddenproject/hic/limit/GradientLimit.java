@@ -0,0 +1,68 @@
+package tech.hiddenproject.hic.limit;
+
+/**
+ * Delay-based limit in the style of TCP Vegas: compares short-term round trip time with long-term
+ * average. When requests get slower than usual, server is queueing them and limit is reduced in
+ * proportion, otherwise it grows by square root of limit, which leaves room to detect spare
+ * capacity.
+ *
+ * @author Danila Rassokhin
+ */
+public class GradientLimit implements LimitAlgorithm {
+
+  private static final double TOLERANCE = 1.5;
+
+  private static final double SMOOTHING = 0.2;
+
+  private static final double LONG_WINDOW = 600;
+
+  private static final double SHORT_WINDOW = 10;
+
+  private final int initialLimit;
+
+  private final int minLimit;
+
+  private final int maxLimit;
+
+  private double estimatedLimit;
+
+  private double longRtt;
+
+  private double shortRtt;
+
+  public GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+    this.initialLimit = initialLimit;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.estimatedLimit = initialLimit;
+  }
+
+  @Override
+  public int initialLimit() {
+    return initialLimit;
+  }
+
+  @Override
+  public int update(int limit, long rttNanos, int inFlight, boolean dropped) {
+    if (longRtt == 0) {
+      longRtt = rttNanos;
+      shortRtt = rttNanos;
+    } else {
+      longRtt += (rttNanos - longRtt) / LONG_WINDOW;
+      shortRtt += (rttNanos - shortRtt) / SHORT_WINDOW;
+    }
+    if (longRtt / shortRtt > 2) {
+      // Server recovered, let baseline follow faster
+      longRtt *= 0.95;
+    }
+    if (dropped) {
+      estimatedLimit = Math.max(minLimit, estimatedLimit * 0.9);
+    } else if (inFlight * 2 >= estimatedLimit) {
+      double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+      double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+      estimatedLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+      estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+    }
+    return (int) estimatedLimit;
+  }
+}
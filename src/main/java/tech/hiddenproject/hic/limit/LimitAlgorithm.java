@@ -0,0 +1,26 @@
+package tech.hiddenproject.hic.limit;
+
+/**
+ * Calculates concurrency limit of {@link ConcurrencyLimiter} from observed requests.
+ *
+ * @author Danila Rassokhin
+ */
+public interface LimitAlgorithm {
+
+  /**
+   * @return Limit before any requests are observed
+   */
+  int initialLimit();
+
+  /**
+   * Calculates new limit after request is finished. Calls are serialized by limiter.
+   *
+   * @param limit    Current limit
+   * @param rttNanos Request round trip time
+   * @param inFlight Count of requests in progress when request was finished, including it
+   * @param dropped  true if request failed or was rejected by server because of overload
+   * @return New limit
+   */
+  int update(int limit, long rttNanos, int inFlight, boolean dropped);
+
+}
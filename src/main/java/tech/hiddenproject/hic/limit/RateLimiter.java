@@ -0,0 +1,208 @@
+package tech.hiddenproject.hic.limit;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import tech.hiddenproject.hic.annotation.RateLimit;
+import tech.hiddenproject.hic.exception.LimitExceededException;
+import tech.hiddenproject.hic.executor.SharedExecutor;
+
+/**
+ * Token bucket of requests. Bucket is kept as single timestamp: theoretical arrival time of next
+ * request, like in GCRA, and updated with compare-and-set, so callers never take locks. Each
+ * request reserves its slot in advance and waits until it, which spreads bursts evenly over time.
+ *
+ * @author Danila Rassokhin
+ */
+public class RateLimiter {
+
+  private final double permitsPerSecond;
+
+  private final int burst;
+
+  private final long intervalNanos;
+
+  private final long toleranceNanos;
+
+  private final long maxWaitNanos;
+
+  private final AtomicLong nextArrival;
+
+  private final LongAdder acquired = new LongAdder();
+
+  private final LongAdder delayed = new LongAdder();
+
+  private final LongAdder rejected = new LongAdder();
+
+  /**
+   * @param permitsPerSecond Requests per second
+   * @param burst            Count of requests which can be sent at once after idle period
+   * @param maxWaitMillis    Max delay of request in milliseconds, -1 to wait without bound
+   */
+  public RateLimiter(double permitsPerSecond, int burst, long maxWaitMillis) {
+    if (permitsPerSecond <= 0 || burst < 1) {
+      throw new IllegalArgumentException("Rate must be positive and burst at least 1");
+    }
+    this.permitsPerSecond = permitsPerSecond;
+    this.burst = burst;
+    this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+    this.toleranceNanos = intervalNanos * (burst - 1);
+    this.maxWaitNanos = maxWaitMillis < 0 ? Long.MAX_VALUE
+        : TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+    this.nextArrival = new AtomicLong(System.nanoTime());
+  }
+
+  /**
+   * Creates limiter which waits without bound.
+   *
+   * @param permitsPerSecond Requests per second
+   * @param burst            Count of requests which can be sent at once after idle period
+   * @return {@link RateLimiter}
+   */
+  public static RateLimiter of(double permitsPerSecond, int burst) {
+    return new RateLimiter(permitsPerSecond, burst, -1);
+  }
+
+  /**
+   * Creates limiter from {@link RateLimit} annotation.
+   *
+   * @param rateLimit {@link RateLimit}
+   * @return {@link RateLimiter}
+   */
+  public static RateLimiter of(RateLimit rateLimit) {
+    return new RateLimiter(rateLimit.value(), rateLimit.burst(), rateLimit.maxWait());
+  }
+
+  /**
+   * Takes token, blocking current thread until it is available.
+   *
+   * @throws LimitExceededException if token is not available in max wait time
+   */
+  public void acquire() {
+    long deadline = System.nanoTime() + reserve();
+    long remaining;
+    while ((remaining = deadline - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(this, remaining);
+    }
+  }
+
+  /**
+   * Takes token without blocking. Delayed futures are completed on
+   * {@link SharedExecutor#get()}, so dependent stages don't run on shared scheduler thread.
+   *
+   * @return Future which is completed when token is available, or failed with
+   * {@link LimitExceededException} if it is not available in max wait time
+   */
+  public CompletableFuture<Void> acquireAsync() {
+    long wait;
+    try {
+      wait = reserve();
+    } catch (LimitExceededException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    if (wait == 0) {
+      return CompletableFuture.completedFuture(null);
+    }
+    CompletableFuture<Void> ready = new CompletableFuture<>();
+    SharedExecutor.scheduler().schedule(
+        () -> SharedExecutor.get().execute(() -> ready.complete(null)), wait,
+        TimeUnit.NANOSECONDS
+    );
+    return ready;
+  }
+
+  /**
+   * Takes token only if it is available now.
+   *
+   * @return true if token is taken
+   */
+  public boolean tryAcquire() {
+    while (true) {
+      long now = System.nanoTime();
+      long arrival = nextArrival.get();
+      long start = arrival - now > 0 ? arrival : now;
+      if (start - now > toleranceNanos) {
+        return false;
+      }
+      if (nextArrival.compareAndSet(arrival, start + intervalNanos)) {
+        acquired.increment();
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Reserves slot for request.
+   *
+   * @return Nanoseconds to wait until slot
+   */
+  private long reserve() {
+    while (true) {
+      long now = System.nanoTime();
+      long arrival = nextArrival.get();
+      long start = arrival - now > 0 ? arrival : now;
+      long wait = Math.max(0, start - now - toleranceNanos);
+      if (wait > maxWaitNanos) {
+        rejected.increment();
+        throw new LimitExceededException(
+            "Rate limit " + permitsPerSecond + "/s exceeded, wait would be "
+                + TimeUnit.NANOSECONDS.toMillis(wait) + "ms");
+      }
+      if (nextArrival.compareAndSet(arrival, start + intervalNanos)) {
+        acquired.increment();
+        if (wait > 0) {
+          delayed.increment();
+        }
+        return wait;
+      }
+    }
+  }
+
+  /**
+   * @return Requests per second
+   */
+  public double getPermitsPerSecond() {
+    return permitsPerSecond;
+  }
+
+  /**
+   * @return Count of requests which can be sent at once after idle period
+   */
+  public int getBurst() {
+    return burst;
+  }
+
+  /**
+   * @return Count of taken tokens
+   */
+  public long getAcquired() {
+    return acquired.sum();
+  }
+
+  /**
+   * @return Count of requests which waited for token
+   */
+  public long getDelayed() {
+    return delayed.sum();
+  }
+
+  /**
+   * @return Count of requests rejected because of max wait time
+   */
+  public long getRejected() {
+    return rejected.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "RateLimiter{" +
+        "permitsPerSecond=" + permitsPerSecond +
+        ", burst=" + burst +
+        ", acquired=" + getAcquired() +
+        ", delayed=" + getDelayed() +
+        ", rejected=" + getRejected() +
+        '}';
+  }
+}
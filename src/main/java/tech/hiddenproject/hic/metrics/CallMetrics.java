@@ -0,0 +1,155 @@
+package tech.hiddenproject.hic.metrics;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Measurements of single {@link tech.hiddenproject.hic.WebClient} call. Created only when client
+ * has {@link MetricsListener}.
+ *
+ * @author Danila Rassokhin
+ */
+public class CallMetrics {
+
+  private static final Phase[] PHASES = Phase.values();
+
+  private final Method method;
+
+  private final long start;
+
+  private final AtomicLongArray phases = new AtomicLongArray(PHASES.length);
+
+  private volatile int statusCode = -1;
+
+  private volatile long requestBytes = -1;
+
+  private volatile long responseBytes = -1;
+
+  private volatile long duration = -1;
+
+  private volatile Throwable error;
+
+  /**
+   * @param method Called {@link tech.hiddenproject.hic.WebClient} interface method
+   * @param start  {@link System#nanoTime()} when call started
+   */
+  public CallMetrics(Method method, long start) {
+    this.method = method;
+    this.start = start;
+  }
+
+  /**
+   * Adds time to phase.
+   *
+   * @param phase {@link Phase}
+   * @param nanos Duration in nanoseconds
+   */
+  public void record(Phase phase, long nanos) {
+    phases.addAndGet(phase.ordinal(), nanos);
+  }
+
+  /**
+   * Adds time passed since given moment to phase.
+   *
+   * @param phase {@link Phase}
+   * @param from  {@link System#nanoTime()} when phase started
+   */
+  public void recordSince(Phase phase, long from) {
+    record(phase, System.nanoTime() - from);
+  }
+
+  /**
+   * Records response.
+   *
+   * @param statusCode    Response status code
+   * @param responseBytes Response body size or -1 if unknown
+   */
+  public void response(int statusCode, long responseBytes) {
+    this.statusCode = statusCode;
+    this.responseBytes = responseBytes;
+  }
+
+  /**
+   * @param requestBytes Request body size or -1 if unknown
+   */
+  public void requestBytes(long requestBytes) {
+    this.requestBytes = requestBytes;
+  }
+
+  /**
+   * Finishes call.
+   *
+   * @param error Call failure or null
+   */
+  public void complete(Throwable error) {
+    this.error = error;
+    this.duration = System.nanoTime() - start;
+  }
+
+  /**
+   * @return Called {@link tech.hiddenproject.hic.WebClient} interface method
+   */
+  public Method getMethod() {
+    return method;
+  }
+
+  /**
+   * @param phase {@link Phase}
+   * @return Time spent in phase in nanoseconds, 0 if phase didn't happen
+   */
+  public long getPhase(Phase phase) {
+    return phases.get(phase.ordinal());
+  }
+
+  /**
+   * @return Whole call duration in nanoseconds
+   */
+  public long getDuration() {
+    return duration;
+  }
+
+  /**
+   * @return Response status code or -1 if there was no response, like for cached responses
+   */
+  public int getStatusCode() {
+    return statusCode;
+  }
+
+  /**
+   * @return Request body size or -1 if unknown
+   */
+  public long getRequestBytes() {
+    return requestBytes;
+  }
+
+  /**
+   * @return Response body size from Content-Length or -1 if unknown
+   */
+  public long getResponseBytes() {
+    return responseBytes;
+  }
+
+  /**
+   * @return Call failure or null
+   */
+  public Throwable getError() {
+    return error;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder phasesString = new StringBuilder();
+    for (Phase phase : PHASES) {
+      phasesString.append(", ").append(phase).append('=').append(getPhase(phase));
+    }
+    return "CallMetrics{" +
+        "method=" + method.getName() +
+        ", duration=" + duration +
+        phasesString +
+        ", statusCode=" + statusCode +
+        ", requestBytes=" + requestBytes +
+        ", responseBytes=" + responseBytes +
+        ", error=" + error +
+        '}';
+  }
+}
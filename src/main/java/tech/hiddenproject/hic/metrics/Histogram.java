@@ -0,0 +1,92 @@
+package tech.hiddenproject.hic.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values with log-linear buckets, like HdrHistogram: each
+ * power of two range is split into 32 buckets, so values are kept with about 3% relative error.
+ * Values above 2^44 (about 4.8 hours in nanoseconds) are counted in the last bucket.
+ *
+ * @author Danila Rassokhin
+ */
+public class Histogram {
+
+  private static final int SUB_BUCKET_BITS = 5;
+
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  private static final int MAX_EXPONENT = 44;
+
+  private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+  private final LongAdder count = new LongAdder();
+
+  private final LongAdder sum = new LongAdder();
+
+  private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+  private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+  static int index(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) Math.max(0, value);
+    }
+    int exponent = Math.min(MAX_EXPONENT, 63 - Long.numberOfLeadingZeros(value));
+    int shift = exponent - SUB_BUCKET_BITS;
+    long subBucket = Math.min(2 * SUB_BUCKETS - 1, value >>> shift);
+    return (shift + 1) * SUB_BUCKETS + (int) (subBucket - SUB_BUCKETS);
+  }
+
+  static long lowerBound(int index) {
+    int group = index / SUB_BUCKETS;
+    if (group == 0) {
+      return index;
+    }
+    return (long) (index % SUB_BUCKETS + SUB_BUCKETS) << (group - 1);
+  }
+
+  static long width(int index) {
+    int group = index / SUB_BUCKETS;
+    return group == 0 ? 1 : 1L << (group - 1);
+  }
+
+  /**
+   * Records value.
+   *
+   * @param value Value, negative values are recorded as 0
+   */
+  public void record(long value) {
+    long recorded = Math.max(0, value);
+    counts.incrementAndGet(index(recorded));
+    count.increment();
+    sum.add(recorded);
+    long current;
+    while (recorded < (current = min.get()) && !min.compareAndSet(current, recorded)) {
+      Thread.onSpinWait();
+    }
+    while (recorded > (current = max.get()) && !max.compareAndSet(current, recorded)) {
+      Thread.onSpinWait();
+    }
+  }
+
+  /**
+   * Copies current state. Values recorded concurrently may be partially included.
+   *
+   * @return {@link HistogramSnapshot}
+   */
+  public HistogramSnapshot snapshot() {
+    long[] copy = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      copy[i] = counts.get(i);
+      total += copy[i];
+    }
+    return new HistogramSnapshot(copy, total, sum.sum(), total == 0 ? 0 : min.get(),
+                                 total == 0 ? 0 : max.get()
+    );
+  }
+}
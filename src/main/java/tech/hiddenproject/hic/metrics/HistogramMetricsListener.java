@@ -0,0 +1,45 @@
+package tech.hiddenproject.hic.metrics;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link MetricsListener} which aggregates calls into {@link Histogram}s per method and phase.
+ *
+ * @author Danila Rassokhin
+ */
+public class HistogramMetricsListener implements MetricsListener {
+
+  private final Map<Method, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+  @Override
+  public void onCall(CallMetrics call) {
+    methods.computeIfAbsent(call.getMethod(), method -> new MethodMetrics()).record(call);
+  }
+
+  /**
+   * @param method {@link tech.hiddenproject.hic.WebClient} interface method
+   * @return {@link MethodMetrics} of method or null if it wasn't called
+   */
+  public MethodMetrics get(Method method) {
+    return methods.get(method);
+  }
+
+  /**
+   * @return {@link MethodMetrics} of all called methods
+   */
+  public Map<Method, MethodMetrics> getAll() {
+    return Collections.unmodifiableMap(methods);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("HistogramMetricsListener{");
+    methods.forEach((method, metrics) -> builder.append("\n  ")
+        .append(method.getDeclaringClass().getSimpleName()).append('.')
+        .append(method.getName()).append('=').append(metrics));
+    return builder.append("\n}").toString();
+  }
+}
@@ -0,0 +1,87 @@
+package tech.hiddenproject.hic.metrics;
+
+/**
+ * Immutable state of {@link Histogram}.
+ *
+ * @author Danila Rassokhin
+ */
+public class HistogramSnapshot {
+
+  private final long[] counts;
+
+  private final long count;
+
+  private final long sum;
+
+  private final long min;
+
+  private final long max;
+
+  HistogramSnapshot(long[] counts, long count, long sum, long min, long max) {
+    this.counts = counts;
+    this.count = count;
+    this.sum = sum;
+    this.min = min;
+    this.max = max;
+  }
+
+  /**
+   * @param percentile Percentile from 0 to 100
+   * @return Value at percentile, middle of its bucket limited by min and max
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (count == 0) {
+      return 0;
+    }
+    long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= target) {
+        long value = Histogram.lowerBound(i) + Histogram.width(i) / 2;
+        return Math.max(min, Math.min(max, value));
+      }
+    }
+    return max;
+  }
+
+  /**
+   * @return Count of values
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * @return Mean value
+   */
+  public double getMean() {
+    return count == 0 ? 0 : (double) sum / count;
+  }
+
+  /**
+   * @return Min value
+   */
+  public long getMin() {
+    return min;
+  }
+
+  /**
+   * @return Max value
+   */
+  public long getMax() {
+    return max;
+  }
+
+  @Override
+  public String toString() {
+    return "HistogramSnapshot{" +
+        "count=" + count +
+        ", mean=" + (long) getMean() +
+        ", p50=" + getValueAtPercentile(50) +
+        ", p99=" + getValueAtPercentile(99) +
+        ", p999=" + getValueAtPercentile(99.9) +
+        ", max=" + max +
+        '}';
+  }
+}
@@ -0,0 +1,115 @@
+package tech.hiddenproject.hic.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregated measurements of one {@link tech.hiddenproject.hic.WebClient} interface method.
+ *
+ * @author Danila Rassokhin
+ */
+public class MethodMetrics {
+
+  private final Histogram duration = new Histogram();
+
+  private final Map<Phase, Histogram> phases = new EnumMap<>(Phase.class);
+
+  private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+
+  private final LongAdder errors = new LongAdder();
+
+  private final LongAdder requestBytes = new LongAdder();
+
+  private final LongAdder responseBytes = new LongAdder();
+
+  MethodMetrics() {
+    for (Phase phase : Phase.values()) {
+      phases.put(phase, new Histogram());
+    }
+  }
+
+  void record(CallMetrics call) {
+    duration.record(call.getDuration());
+    for (Map.Entry<Phase, Histogram> phase : phases.entrySet()) {
+      long nanos = call.getPhase(phase.getKey());
+      if (nanos > 0) {
+        phase.getValue().record(nanos);
+      }
+    }
+    if (call.getStatusCode() >= 0) {
+      statusCodes.computeIfAbsent(call.getStatusCode(), code -> new LongAdder()).increment();
+    }
+    if (call.getError() != null) {
+      errors.increment();
+    }
+    requestBytes.add(Math.max(0, call.getRequestBytes()));
+    responseBytes.add(Math.max(0, call.getResponseBytes()));
+  }
+
+  /**
+   * @return Durations of whole calls in nanoseconds
+   */
+  public HistogramSnapshot getDuration() {
+    return duration.snapshot();
+  }
+
+  /**
+   * @param phase {@link Phase}
+   * @return Durations of phase in nanoseconds, for calls where phase happened
+   */
+  public HistogramSnapshot getPhase(Phase phase) {
+    return phases.get(phase).snapshot();
+  }
+
+  /**
+   * @return Count of responses by status code
+   */
+  public Map<Integer, Long> getStatusCodes() {
+    Map<Integer, Long> counts = new TreeMap<>();
+    statusCodes.forEach((code, count) -> counts.put(code, count.sum()));
+    return counts;
+  }
+
+  /**
+   * @return Count of failed calls
+   */
+  public long getErrors() {
+    return errors.sum();
+  }
+
+  /**
+   * @return Sum of known request body sizes
+   */
+  public long getRequestBytes() {
+    return requestBytes.sum();
+  }
+
+  /**
+   * @return Sum of known response body sizes
+   */
+  public long getResponseBytes() {
+    return responseBytes.sum();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder phasesString = new StringBuilder();
+    for (Phase phase : Phase.values()) {
+      HistogramSnapshot snapshot = getPhase(phase);
+      if (snapshot.getCount() > 0) {
+        phasesString.append(", ").append(phase).append('=').append(snapshot);
+      }
+    }
+    return "MethodMetrics{" +
+        "duration=" + getDuration() +
+        phasesString +
+        ", statusCodes=" + getStatusCodes() +
+        ", errors=" + getErrors() +
+        ", requestBytes=" + getRequestBytes() +
+        ", responseBytes=" + getResponseBytes() +
+        '}';
+  }
+}
@@ -0,0 +1,18 @@
+package tech.hiddenproject.hic.metrics;
+
+/**
+ * Receives measurements of {@link tech.hiddenproject.hic.WebClient} calls. Called once per call
+ * when its result is ready, on thread which completes it, so implementation must be fast and
+ * thread safe.
+ *
+ * @author Danila Rassokhin
+ */
+@FunctionalInterface
+public interface MetricsListener {
+
+  /**
+   * @param call Measurements of finished call
+   */
+  void onCall(CallMetrics call);
+
+}
@@ -0,0 +1,46 @@
+package tech.hiddenproject.hic.metrics;
+
+/**
+ * Phases of {@link tech.hiddenproject.hic.WebClient} call measured by {@link CallMetrics}.
+ *
+ * @author Danila Rassokhin
+ */
+public enum Phase {
+
+  /**
+   * Binding of arguments, for proxy clients including lookup of method plan.
+   */
+  BIND,
+
+  /**
+   * Evaluation of client header suppliers.
+   */
+  HEADERS,
+
+  /**
+   * Waiting for rate limiter and concurrency limiter.
+   */
+  WAIT,
+
+  /**
+   * Creation of {@link java.net.http.HttpRequest}, summed over hedged attempts.
+   */
+  CREATE,
+
+  /**
+   * Sending of request until response headers are received, including {@link #CREATE}.
+   */
+  NETWORK,
+
+  /**
+   * Dispatch of response to {@link tech.hiddenproject.hic.handler.HttpHandler}s.
+   */
+  HANDLER,
+
+  /**
+   * Decoding of response body with {@link tech.hiddenproject.hic.decoder.BodyDecoder}. Body which
+   * is not read by {@link #HANDLER} is streamed, so its reading is included.
+   */
+  DECODE
+
+}
@@ -0,0 +1,268 @@
+package tech.hiddenproject.hic.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic.Kind;
+import tech.hiddenproject.hic.UriTemplate;
+import tech.hiddenproject.hic.annotation.Batched;
+import tech.hiddenproject.hic.annotation.Body;
+import tech.hiddenproject.hic.annotation.DELETE;
+import tech.hiddenproject.hic.annotation.Field;
+import tech.hiddenproject.hic.annotation.GET;
+import tech.hiddenproject.hic.annotation.Header;
+import tech.hiddenproject.hic.annotation.POST;
+import tech.hiddenproject.hic.annotation.PUT;
+import tech.hiddenproject.hic.annotation.Part;
+import tech.hiddenproject.hic.annotation.Path;
+import tech.hiddenproject.hic.annotation.Query;
+
+/**
+ * Generates implementations of {@link tech.hiddenproject.hic.WebClient} interfaces at build time.
+ * For interface {@code BookClient} class {@code BookClientImpl} is generated in the same package,
+ * which binds parameters with direct calls and is picked up by
+ * {@link tech.hiddenproject.hic.WebClient#create()} instead of {@link java.lang.reflect.Proxy}.
+ * Parameters of {@link Batched} methods are bound through
+ * {@link tech.hiddenproject.hic.MethodPlan}, so batch key is recorded the same way as for proxy
+ * clients.
+ *
+ * @author Danila Rassokhin
+ */
+@SupportedAnnotationTypes({
+    "tech.hiddenproject.hic.annotation.GET",
+    "tech.hiddenproject.hic.annotation.POST",
+    "tech.hiddenproject.hic.annotation.PUT",
+    "tech.hiddenproject.hic.annotation.DELETE"
+})
+public class WebClientProcessor extends AbstractProcessor {
+
+  /**
+   * Suffix of generated implementation class name.
+   */
+  public static final String SUFFIX = "Impl";
+
+  private final Set<String> generated = new LinkedHashSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    Set<TypeElement> clients = new LinkedHashSet<>();
+    for (TypeElement annotation : annotations) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        Element enclosing = element.getEnclosingElement();
+        if (enclosing.getKind() == ElementKind.INTERFACE) {
+          clients.add((TypeElement) enclosing);
+        }
+      }
+    }
+    for (TypeElement client : clients) {
+      if (generated.add(client.getQualifiedName().toString())) {
+        generate(client);
+      }
+    }
+    return false;
+  }
+
+  private void generate(TypeElement client) {
+    List<ExecutableElement> methods = new ArrayList<>();
+    for (Element member : processingEnv.getElementUtils().getAllMembers(client)) {
+      if (member.getKind() != ElementKind.METHOD
+          || !member.getModifiers().contains(Modifier.ABSTRACT)) {
+        continue;
+      }
+      ExecutableElement method = (ExecutableElement) member;
+      if (!method.getTypeParameters().isEmpty() || !hasRequestAnnotation(method)) {
+        processingEnv.getMessager().printMessage(
+            Kind.WARNING, "Implementation is not generated, method is not supported: " + method,
+            client
+        );
+        return;
+      }
+      methods.add(method);
+    }
+    String packageName = packageOf(client).getQualifiedName().toString();
+    String binaryName = processingEnv.getElementUtils().getBinaryName(client).toString();
+    String className = binaryName.substring(binaryName.lastIndexOf('.') + 1) + SUFFIX;
+    String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+    try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, client)
+        .openWriter()) {
+      writer.write(source(client, packageName, className, methods));
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Kind.ERROR, e.getMessage(), client);
+    }
+  }
+
+  private String source(TypeElement client, String packageName, String className,
+                        List<ExecutableElement> methods) {
+    String clientName = client.getQualifiedName().toString();
+    StringBuilder source = new StringBuilder();
+    if (!packageName.isEmpty()) {
+      source.append("package ").append(packageName).append(";\n\n");
+    }
+    source.append("import tech.hiddenproject.hic.MethodPlan;\n")
+        .append("import tech.hiddenproject.hic.RequestInvocationInterceptor;\n")
+        .append("import tech.hiddenproject.hic.RequestParameters;\n\n")
+        .append("@javax.annotation.processing.Generated(\"")
+        .append(WebClientProcessor.class.getName()).append("\")\n")
+        .append("public final class ").append(className).append(" implements ")
+        .append(clientName).append(" {\n\n");
+    for (int i = 0; i < methods.size(); i++) {
+      source.append("  private final MethodPlan PLAN_").append(i).append(";\n\n");
+    }
+    source.append("  private final RequestInvocationInterceptor interceptor;\n\n")
+        .append("  public ").append(className)
+        .append("(RequestInvocationInterceptor interceptor) {\n")
+        .append("    this.interceptor = interceptor;\n");
+    for (int i = 0; i < methods.size(); i++) {
+      ExecutableElement method = methods.get(i);
+      source.append("    this.PLAN_").append(i)
+          .append(" = plan(\"").append(method.getSimpleName()).append("\"");
+      for (VariableElement parameter : method.getParameters()) {
+        source.append(", ").append(erasure(parameter.asType())).append(".class");
+      }
+      source.append(");\n");
+    }
+    source.append("  }\n\n")
+        .append("  private static MethodPlan plan(String name, Class<?>... parameterTypes) {\n")
+        .append("    try {\n")
+        .append("      return MethodPlan.of(").append(clientName)
+        .append(".class.getMethod(name, parameterTypes));\n")
+        .append("    } catch (NoSuchMethodException e) {\n")
+        .append("      throw new tech.hiddenproject.hic.exception.HttpClientException(e);\n")
+        .append("    }\n")
+        .append("  }\n");
+    for (int i = 0; i < methods.size(); i++) {
+      source.append(method(methods.get(i), "PLAN_" + i));
+    }
+    return source.append("}\n").toString();
+  }
+
+  private String method(ExecutableElement method, String plan) {
+    TypeMirror returnType = method.getReturnType();
+    boolean isVoid = returnType.getKind() == TypeKind.VOID;
+    String parameters = method.getParameters().stream()
+        .map(parameter -> parameter.asType() + " " + parameter.getSimpleName())
+        .collect(Collectors.joining(", "));
+    StringBuilder source = new StringBuilder("\n");
+    if (!isVoid) {
+      source.append("  @SuppressWarnings(\"unchecked\")\n");
+    }
+    source.append("  @Override\n")
+        .append("  public ").append(returnType).append(" ").append(method.getSimpleName())
+        .append("(").append(parameters).append(") {\n")
+        .append("    long bindStart = interceptor.bindStart();\n")
+        .append("    RequestParameters parameters = ").append(plan).append(".parameters();\n");
+    if (method.getAnnotation(Batched.class) != null) {
+      for (int i = 0; i < method.getParameters().size(); i++) {
+        source.append("    ").append(plan).append(".bind(parameters, ").append(i).append(", ")
+            .append(method.getParameters().get(i).getSimpleName()).append(");\n");
+      }
+      return invoke(source, returnType, plan);
+    }
+    UriTemplate uriTemplate = UriTemplate.compile(path(method));
+    for (VariableElement parameter : method.getParameters()) {
+      String name = parameter.getSimpleName().toString();
+      Query query = parameter.getAnnotation(Query.class);
+      if (query != null) {
+        source.append("    parameters.query(").append(literal(query.value())).append(", ")
+            .append(name).append(");\n");
+      }
+      Path path = parameter.getAnnotation(Path.class);
+      if (path != null && uriTemplate.indexOf(path.value()) != -1) {
+        source.append("    parameters.path(").append(uriTemplate.indexOf(path.value()))
+            .append(", ").append(name).append(");\n");
+      }
+      Header header = parameter.getAnnotation(Header.class);
+      if (header != null) {
+        source.append("    parameters.header(").append(literal(header.value())).append(", ")
+            .append(name).append(");\n");
+      }
+      Field field = parameter.getAnnotation(Field.class);
+      if (field != null) {
+        source.append("    parameters.field(").append(literal(field.value())).append(", ")
+            .append(name).append(");\n");
+      }
+      Part part = parameter.getAnnotation(Part.class);
+      if (part != null) {
+        source.append("    parameters.part(").append(literal(part.value())).append(", ")
+            .append(name).append(");\n");
+      }
+      if (parameter.getAnnotation(Body.class) != null) {
+        source.append("    parameters.body(").append(name).append(");\n");
+      }
+    }
+    return invoke(source, returnType, plan);
+  }
+
+  private String invoke(StringBuilder source, TypeMirror returnType, String plan) {
+    source.append("    ");
+    if (returnType.getKind() != TypeKind.VOID) {
+      source.append("return (").append(boxed(returnType)).append(") ");
+    }
+    return source.append("interceptor.execute(").append(plan).append(", parameters, bindStart);\n")
+        .append("  }\n").toString();
+  }
+
+  private boolean hasRequestAnnotation(ExecutableElement method) {
+    return method.getAnnotation(GET.class) != null || method.getAnnotation(POST.class) != null
+        || method.getAnnotation(PUT.class) != null || method.getAnnotation(DELETE.class) != null;
+  }
+
+  private String path(ExecutableElement method) {
+    if (method.getAnnotation(GET.class) != null) {
+      return method.getAnnotation(GET.class).value();
+    }
+    if (method.getAnnotation(POST.class) != null) {
+      return method.getAnnotation(POST.class).value();
+    }
+    if (method.getAnnotation(PUT.class) != null) {
+      return method.getAnnotation(PUT.class).value();
+    }
+    return method.getAnnotation(DELETE.class).value();
+  }
+
+  private PackageElement packageOf(Element element) {
+    while (!(element instanceof PackageElement)) {
+      element = element.getEnclosingElement();
+    }
+    return (PackageElement) element;
+  }
+
+  private String erasure(TypeMirror type) {
+    return processingEnv.getTypeUtils().erasure(type).toString();
+  }
+
+  private String boxed(TypeMirror type) {
+    if (type.getKind().isPrimitive()) {
+      return processingEnv.getTypeUtils()
+          .boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind()))
+          .getQualifiedName().toString();
+    }
+    return type.toString();
+  }
+
+  private String literal(String value) {
+    return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+  }
+}
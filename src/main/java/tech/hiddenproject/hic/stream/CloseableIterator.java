@@ -0,0 +1,56 @@
+package tech.hiddenproject.hic.stream;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * {@link Iterator} over decoded response elements, which releases response body when elements are
+ * exhausted or iteration is closed.
+ *
+ * @param <T> Element type
+ * @author Danila Rassokhin
+ */
+public class CloseableIterator<T> implements Iterator<T>, AutoCloseable {
+
+  private final Iterator<T> delegate;
+
+  private final Closeable resource;
+
+  private volatile boolean closed;
+
+  public CloseableIterator(Iterator<T> delegate, Closeable resource) {
+    this.delegate = delegate;
+    this.resource = resource;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (closed) {
+      return false;
+    }
+    boolean hasNext = delegate.hasNext();
+    if (!hasNext) {
+      close();
+    }
+    return hasNext;
+  }
+
+  @Override
+  public T next() {
+    return delegate.next();
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      resource.close();
+    } catch (IOException e) {
+      // Nothing to do, body is not needed anymore
+    }
+  }
+}
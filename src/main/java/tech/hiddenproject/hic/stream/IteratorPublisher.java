@@ -0,0 +1,187 @@
+package tech.hiddenproject.hic.stream;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow.Publisher;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cold {@link Publisher} over elements of lazily decoded response. Request is sent when publisher
+ * is subscribed and elements are pulled from iterator only as subscriber requests them. Supports
+ * single subscriber.
+ *
+ * @param <T> Element type
+ * @author Danila Rassokhin
+ */
+public class IteratorPublisher<T> implements Publisher<T> {
+
+  private final Supplier<CompletableFuture<Iterator<T>>> source;
+
+  private final Executor executor;
+
+  private final AtomicBoolean subscribed = new AtomicBoolean();
+
+  /**
+   * @param source   Starts request and supplies future with elements iterator
+   * @param executor Executor to pull elements on
+   */
+  public IteratorPublisher(Supplier<CompletableFuture<Iterator<T>>> source, Executor executor) {
+    this.source = source;
+    this.executor = executor;
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super T> subscriber) {
+    if (!subscribed.compareAndSet(false, true)) {
+      subscriber.onSubscribe(new Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+      });
+      subscriber.onError(new IllegalStateException("Publisher supports only one subscriber"));
+      return;
+    }
+    subscriber.onSubscribe(new IteratorSubscription(subscriber));
+  }
+
+  private class IteratorSubscription implements Subscription {
+
+    private final Subscriber<? super T> subscriber;
+
+    private final AtomicLong demand = new AtomicLong();
+
+    private final AtomicInteger work = new AtomicInteger();
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private volatile Iterator<T> iterator;
+
+    private volatile Throwable error;
+
+    private volatile boolean sourceCompleted;
+
+    private volatile boolean done;
+
+    private volatile boolean cancelled;
+
+    private boolean closed;
+
+    private IteratorSubscription(Subscriber<? super T> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        error = new IllegalArgumentException("Non-positive request: " + n);
+        sourceCompleted = true;
+        drain();
+        return;
+      }
+      demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+      if (started.compareAndSet(false, true)) {
+        source.get().whenComplete((elements, throwable) -> {
+          if (throwable != null) {
+            error = throwable;
+          }
+          iterator = elements;
+          sourceCompleted = true;
+          drain();
+        });
+        return;
+      }
+      drain();
+    }
+
+    /**
+     * Marks subscription cancelled. Elements are closed in drain loop, so close never runs
+     * concurrently with pulling, and elements supplied after cancel are closed as well.
+     */
+    @Override
+    public void cancel() {
+      cancelled = true;
+      drain();
+    }
+
+    private void drain() {
+      if (work.getAndIncrement() == 0) {
+        executor.execute(this::emit);
+      }
+    }
+
+    private void emit() {
+      int missed = 1;
+      do {
+        if (cancelled) {
+          done = true;
+          close();
+        } else if (!done && sourceCompleted) {
+          if (error != null) {
+            finish(error);
+          } else {
+            pull();
+          }
+        }
+        missed = work.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private void pull() {
+      Iterator<T> elements = iterator;
+      try {
+        while (!done && !cancelled && demand.get() > 0) {
+          if (elements == null || !elements.hasNext()) {
+            finish(null);
+            return;
+          }
+          T element = elements.next();
+          demand.decrementAndGet();
+          subscriber.onNext(element);
+        }
+        if (elements == null) {
+          finish(null);
+        }
+      } catch (RuntimeException e) {
+        finish(e);
+      }
+    }
+
+    private void finish(Throwable throwable) {
+      if (done) {
+        return;
+      }
+      done = true;
+      close();
+      if (throwable == null) {
+        subscriber.onComplete();
+      } else {
+        subscriber.onError(throwable);
+      }
+    }
+
+    private void close() {
+      Iterator<T> elements = iterator;
+      if (closed || elements == null) {
+        return;
+      }
+      closed = true;
+      if (elements instanceof AutoCloseable) {
+        try {
+          ((AutoCloseable) elements).close();
+        } catch (Exception e) {
+          // Nothing to do, elements are not needed anymore
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package tech.hiddenproject.hic.stream;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import tech.hiddenproject.hic.data.StreamFormat;
+import tech.hiddenproject.hic.data.impl.ServerSentEvent;
+
+/**
+ * Decodes elements of {@link StreamFormat} response from its lines. Only current line and event are
+ * held in memory, so stream can run for any time.
+ *
+ * @param <T> Element type
+ * @author Danila Rassokhin
+ */
+public class LineElementIterator<T> implements Iterator<T> {
+
+  private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+  private final Iterator<String> lines;
+
+  private final StreamFormat format;
+
+  private final Function<ServerSentEvent, T> decoder;
+
+  private final StringBuilder data = new StringBuilder();
+
+  private String lastEventId;
+
+  private String eventType;
+
+  private Long retry;
+
+  private boolean hasData;
+
+  private T next;
+
+  /**
+   * Events are dispatched on empty line, incomplete event at the end of response is dropped.
+   *
+   * @param lines   Response lines
+   * @param format  Response format
+   * @param decoder Decodes element from event. For {@link StreamFormat#NDJSON} event data is line
+   */
+  public LineElementIterator(Iterator<String> lines, StreamFormat format,
+                             Function<ServerSentEvent, T> decoder) {
+    this.lines = lines;
+    this.format = format;
+    this.decoder = decoder;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (next == null && lines.hasNext()) {
+      String line = lines.next();
+      next = format == StreamFormat.SSE ? onEventLine(line) : onLine(line);
+    }
+    return next != null;
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    T element = next;
+    next = null;
+    return element;
+  }
+
+  private T onLine(String line) {
+    if (line.isBlank()) {
+      return null;
+    }
+    return decoder.apply(new ServerSentEvent(null, null, line, null));
+  }
+
+  private T onEventLine(String line) {
+    if (line.isEmpty()) {
+      return dispatch();
+    }
+    if (line.startsWith(":")) {
+      return null;
+    }
+    int colon = line.indexOf(':');
+    String field = colon == -1 ? line : line.substring(0, colon);
+    String value = "";
+    if (colon != -1) {
+      int start = colon + 1 < line.length() && line.charAt(colon + 1) == ' ' ? colon + 2 : colon + 1;
+      value = line.substring(start);
+    }
+    switch (field) {
+      case "data":
+        if (hasData) {
+          data.append('\n');
+        }
+        data.append(value);
+        hasData = true;
+        break;
+      case "event":
+        eventType = value;
+        break;
+      case "id":
+        if (value.indexOf('\0') == -1) {
+          lastEventId = value;
+        }
+        break;
+      case "retry":
+        if (!value.isEmpty() && value.chars().allMatch(Character::isDigit)) {
+          retry = Long.parseLong(value);
+        }
+        break;
+      default:
+        break;
+    }
+    return null;
+  }
+
+  private T dispatch() {
+    if (!hasData) {
+      eventType = null;
+      return null;
+    }
+    ServerSentEvent event = new ServerSentEvent(lastEventId,
+                                                eventType == null ? "message" : eventType,
+                                                data.toString(), retry
+    );
+    data.setLength(0);
+    if (data.capacity() > MAX_RETAINED_CAPACITY) {
+      data.trimToSize();
+    }
+    hasData = false;
+    eventType = null;
+    return decoder.apply(event);
+  }
+}
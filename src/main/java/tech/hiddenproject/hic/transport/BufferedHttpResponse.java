@@ -0,0 +1,159 @@
+package tech.hiddenproject.hic.transport;
+
+import java.net.URI;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.net.ssl.SSLSession;
+
+/**
+ * {@link HttpResponse} with body which is already in memory. Body is passed through
+ * {@link BodyHandler} of request, so response looks the same as if it was received from network.
+ *
+ * @param <T> Body type
+ * @author Danila Rassokhin
+ */
+public class BufferedHttpResponse<T> implements HttpResponse<T> {
+
+  private final HttpRequest request;
+
+  private final int statusCode;
+
+  private final HttpHeaders headers;
+
+  private final T body;
+
+  private BufferedHttpResponse(HttpRequest request, int statusCode, HttpHeaders headers, T body) {
+    this.request = request;
+    this.statusCode = statusCode;
+    this.headers = headers;
+    this.body = body;
+  }
+
+  /**
+   * Creates response by passing body to {@link BodyHandler}.
+   *
+   * @param request     {@link HttpRequest}
+   * @param statusCode  Response status code
+   * @param headers     Response headers
+   * @param body        Response body
+   * @param bodyHandler {@link BodyHandler} of request
+   * @param <T>         Body type
+   * @return Future with response, completed when handler provides body
+   */
+  public static <T> CompletableFuture<HttpResponse<T>> of(HttpRequest request, int statusCode,
+                                                          Map<String, List<String>> headers,
+                                                          byte[] body,
+                                                          BodyHandler<T> bodyHandler) {
+    HttpHeaders httpHeaders = HttpHeaders.of(headers, (name, value) -> true);
+    ResponseInfo info = new ResponseInfo() {
+      @Override
+      public int statusCode() {
+        return statusCode;
+      }
+
+      @Override
+      public HttpHeaders headers() {
+        return httpHeaders;
+      }
+
+      @Override
+      public Version version() {
+        return Version.HTTP_1_1;
+      }
+    };
+    BodySubscriber<T> subscriber = bodyHandler.apply(info);
+    subscriber.onSubscribe(new ByteArraySubscription(subscriber, body));
+    return subscriber.getBody().toCompletableFuture()
+        .thenApply(converted -> new BufferedHttpResponse<>(request, statusCode, httpHeaders,
+                                                           converted
+        ));
+  }
+
+  @Override
+  public int statusCode() {
+    return statusCode;
+  }
+
+  @Override
+  public HttpRequest request() {
+    return request;
+  }
+
+  @Override
+  public Optional<HttpResponse<T>> previousResponse() {
+    return Optional.empty();
+  }
+
+  @Override
+  public HttpHeaders headers() {
+    return headers;
+  }
+
+  @Override
+  public T body() {
+    return body;
+  }
+
+  @Override
+  public Optional<SSLSession> sslSession() {
+    return Optional.empty();
+  }
+
+  @Override
+  public URI uri() {
+    return request.uri();
+  }
+
+  @Override
+  public Version version() {
+    return Version.HTTP_1_1;
+  }
+
+  /**
+   * Publishes whole body as single buffer on first request.
+   */
+  private static class ByteArraySubscription implements Flow.Subscription {
+
+    private final Flow.Subscriber<? super List<ByteBuffer>> subscriber;
+
+    private final byte[] body;
+
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    private ByteArraySubscription(Flow.Subscriber<? super List<ByteBuffer>> subscriber,
+                                  byte[] body) {
+      this.subscriber = subscriber;
+      this.body = body;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        if (done.compareAndSet(false, true)) {
+          subscriber.onError(new IllegalArgumentException("Non-positive request: " + n));
+        }
+        return;
+      }
+      if (done.compareAndSet(false, true)) {
+        if (body.length > 0) {
+          subscriber.onNext(List.of(ByteBuffer.wrap(body)));
+        }
+        subscriber.onComplete();
+      }
+    }
+
+    @Override
+    public void cancel() {
+      done.set(true);
+    }
+  }
+}
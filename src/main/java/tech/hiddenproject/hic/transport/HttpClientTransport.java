@@ -0,0 +1,34 @@
+package tech.hiddenproject.hic.transport;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link Transport} which sends requests with {@link HttpClient}.
+ *
+ * @author Danila Rassokhin
+ */
+public class HttpClientTransport implements Transport {
+
+  private final HttpClient httpClient;
+
+  public HttpClientTransport(HttpClient httpClient) {
+    this.httpClient = httpClient;
+  }
+
+  @Override
+  public <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request,
+                                                     BodyHandler<T> bodyHandler) {
+    return httpClient.sendAsync(request, bodyHandler);
+  }
+
+  /**
+   * @return {@link HttpClient} of transport
+   */
+  public HttpClient getHttpClient() {
+    return httpClient;
+  }
+}
@@ -0,0 +1,105 @@
+package tech.hiddenproject.hic.transport;
+
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import tech.hiddenproject.hic.exception.HttpClientException;
+
+/**
+ * {@link Transport} which serves prepared responses from memory without any I/O. Responses are
+ * found by request method, path and query. If several responses are added for the same request,
+ * they are served in order and the last one is repeated.
+ *
+ * @author Danila Rassokhin
+ */
+public class InMemoryTransport implements Transport {
+
+  private static final Map<String, List<String>> JSON = Map.of(
+      "Content-Type", List.of("application/json"));
+
+  private final Map<String, Deque<RecordedExchange>> responses = new ConcurrentHashMap<>();
+
+  /**
+   * Loads exchanges saved by {@link RecordingTransport}.
+   *
+   * @param file File with recorded exchanges
+   * @return {@link InMemoryTransport} which replays them
+   */
+  public static InMemoryTransport replay(Path file) {
+    Gson gson = new Gson();
+    InMemoryTransport transport = new InMemoryTransport();
+    try {
+      for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+        if (!line.isBlank()) {
+          transport.add(gson.fromJson(line, RecordedExchange.class));
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return transport;
+  }
+
+  /**
+   * Adds JSON response.
+   *
+   * @param method       Request method
+   * @param pathAndQuery Request path with query, like {@code /book?page=1}
+   * @param statusCode   Response status code
+   * @param body         Response body
+   * @return {@link InMemoryTransport}
+   */
+  public InMemoryTransport respond(String method, String pathAndQuery, int statusCode,
+                                   String body) {
+    return add(new RecordedExchange(method, pathAndQuery, Collections.emptyMap(), null,
+                                    statusCode, JSON, body.getBytes(StandardCharsets.UTF_8)
+    ));
+  }
+
+  /**
+   * Adds response for exchange request.
+   *
+   * @param exchange {@link RecordedExchange}
+   * @return {@link InMemoryTransport}
+   */
+  public InMemoryTransport add(RecordedExchange exchange) {
+    Deque<RecordedExchange> queue = responses.computeIfAbsent(exchange.key(),
+                                                              key -> new ArrayDeque<>());
+    synchronized (queue) {
+      queue.add(exchange);
+    }
+    return this;
+  }
+
+  @Override
+  public <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request,
+                                                     BodyHandler<T> bodyHandler) {
+    String key = RecordedExchange.key(request.method(), request.uri());
+    Deque<RecordedExchange> queue = responses.get(key);
+    if (queue == null) {
+      return CompletableFuture.failedFuture(new HttpClientException("No response for " + key));
+    }
+    RecordedExchange exchange;
+    synchronized (queue) {
+      exchange = queue.size() > 1 ? queue.poll() : queue.peek();
+    }
+    byte[] body = exchange.getResponseBody();
+    return RequestBodies.read(request).thenCompose(
+        requestBody -> BufferedHttpResponse.of(request, exchange.getStatusCode(),
+                                               exchange.getResponseHeaders(), body, bodyHandler
+        ));
+  }
+}
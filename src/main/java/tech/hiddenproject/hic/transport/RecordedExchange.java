@@ -0,0 +1,109 @@
+package tech.hiddenproject.hic.transport;
+
+import java.net.URI;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request and response pair. Stored by {@link RecordingTransport} as JSON line and served by
+ * {@link InMemoryTransport}. Bodies are kept in Base64, so binary and compressed payloads are
+ * replayed unchanged.
+ *
+ * @author Danila Rassokhin
+ */
+public class RecordedExchange {
+
+  private String method;
+
+  private String uri;
+
+  private Map<String, List<String>> requestHeaders;
+
+  private String requestBody;
+
+  private int statusCode;
+
+  private Map<String, List<String>> responseHeaders;
+
+  private String responseBody;
+
+  private transient volatile byte[] responseBytes;
+
+  public RecordedExchange(String method, String uri, Map<String, List<String>> requestHeaders,
+                          byte[] requestBody, int statusCode,
+                          Map<String, List<String>> responseHeaders, byte[] responseBody) {
+    this.method = method;
+    this.uri = uri;
+    this.requestHeaders = requestHeaders;
+    this.requestBody = encode(requestBody);
+    this.statusCode = statusCode;
+    this.responseHeaders = responseHeaders;
+    this.responseBody = encode(responseBody);
+  }
+
+  /**
+   * Creates key which identifies request: method, path and query. Host is not included, so
+   * recordings can be replayed for other base url.
+   *
+   * @param method Request method
+   * @param uri    Request uri
+   * @return Request key
+   */
+  public static String key(String method, URI uri) {
+    String query = uri.getRawQuery();
+    return method + " " + uri.getRawPath() + (query == null ? "" : "?" + query);
+  }
+
+  /**
+   * @return Request key, see {@link #key(String, URI)}
+   */
+  public String key() {
+    return key(method, URI.create(uri));
+  }
+
+  public String getMethod() {
+    return method;
+  }
+
+  public String getUri() {
+    return uri;
+  }
+
+  public Map<String, List<String>> getRequestHeaders() {
+    return requestHeaders == null ? Collections.emptyMap() : requestHeaders;
+  }
+
+  public byte[] getRequestBody() {
+    return decode(requestBody);
+  }
+
+  public int getStatusCode() {
+    return statusCode;
+  }
+
+  public Map<String, List<String>> getResponseHeaders() {
+    return responseHeaders == null ? Collections.emptyMap() : responseHeaders;
+  }
+
+  /**
+   * @return Response body, decoded once and shared between calls, so it must not be modified
+   */
+  public byte[] getResponseBody() {
+    byte[] bytes = responseBytes;
+    if (bytes == null) {
+      bytes = decode(responseBody);
+      responseBytes = bytes;
+    }
+    return bytes;
+  }
+
+  private static String encode(byte[] body) {
+    return body == null || body.length == 0 ? null : Base64.getEncoder().encodeToString(body);
+  }
+
+  private static byte[] decode(String body) {
+    return body == null ? new byte[0] : Base64.getDecoder().decode(body);
+  }
+}
@@ -0,0 +1,109 @@
+package tech.hiddenproject.hic.transport;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link Transport} which sends requests with other transport and appends each exchange to file
+ * as JSON line. File can be replayed with {@link InMemoryTransport#replay(Path)}. Request and
+ * response bodies are buffered in memory to be recorded, so streaming responses are received
+ * whole before they are passed to client. Values of sensitive headers, by default
+ * {@link #DEFAULT_REDACTED_HEADERS}, are replaced with {@value #REDACTED}. Failure to write file is
+ * logged and does not fail the call.
+ *
+ * @author Danila Rassokhin
+ */
+public class RecordingTransport implements Transport {
+
+  private static final Logger log = LoggerFactory.getLogger(RecordingTransport.class);
+
+  /**
+   * Names of request and response headers which are not recorded by default, in lower case.
+   */
+  public static final Set<String> DEFAULT_REDACTED_HEADERS = Set.of(
+      "authorization", "proxy-authorization", "cookie", "set-cookie", "x-api-key");
+
+  public static final String REDACTED = "<redacted>";
+
+  private final Transport delegate;
+
+  private final Path file;
+
+  private final Set<String> redactedHeaders;
+
+  private final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+
+  /**
+   * @param delegate {@link Transport} to send requests with
+   * @param file     File to append exchanges to
+   */
+  public RecordingTransport(Transport delegate, Path file) {
+    this(delegate, file, DEFAULT_REDACTED_HEADERS);
+  }
+
+  /**
+   * @param delegate        {@link Transport} to send requests with
+   * @param file            File to append exchanges to
+   * @param redactedHeaders Names of headers which values must not be recorded
+   */
+  public RecordingTransport(Transport delegate, Path file, Set<String> redactedHeaders) {
+    this.delegate = delegate;
+    this.file = file;
+    this.redactedHeaders = redactedHeaders.stream()
+        .map(name -> name.toLowerCase(Locale.ROOT))
+        .collect(Collectors.toUnmodifiableSet());
+  }
+
+  @Override
+  public <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request,
+                                                     BodyHandler<T> bodyHandler) {
+    return RequestBodies.read(request).thenCompose(requestBody -> delegate.send(
+        RequestBodies.withBody(request, requestBody), BodyHandlers.ofByteArray()
+    ).thenCompose(response -> {
+      record(new RecordedExchange(request.method(), request.uri().toString(),
+                                  redact(request.headers().map()), requestBody,
+                                  response.statusCode(), redact(response.headers().map()),
+                                  response.body()
+      ));
+      return BufferedHttpResponse.of(request, response.statusCode(), response.headers().map(),
+                                     response.body(), bodyHandler
+      );
+    }));
+  }
+
+  private Map<String, List<String>> redact(Map<String, List<String>> headers) {
+    Map<String, List<String>> redacted = new LinkedHashMap<>();
+    headers.forEach((name, values) -> redacted.put(
+        name, redactedHeaders.contains(name.toLowerCase(Locale.ROOT)) ? List.of(REDACTED) : values
+    ));
+    return redacted;
+  }
+
+  private synchronized void record(RecordedExchange exchange) {
+    try {
+      Files.write(file, List.of(gson.toJson(exchange)), StandardCharsets.UTF_8,
+                  StandardOpenOption.CREATE, StandardOpenOption.APPEND
+      );
+    } catch (IOException e) {
+      log.warn("Failed to record exchange to {}", file, e);
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package tech.hiddenproject.hic.transport;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Reads request bodies for transports which don't send them to network.
+ *
+ * @author Danila Rassokhin
+ */
+public class RequestBodies {
+
+  /**
+   * Reads whole body of request. Body publisher is subscribed, so lazy encoders do their work.
+   *
+   * @param request {@link HttpRequest}
+   * @return Future with body bytes, empty if request has no body
+   */
+  public static CompletableFuture<byte[]> read(HttpRequest request) {
+    BodyPublisher publisher = request.bodyPublisher().orElse(null);
+    if (publisher == null || publisher.contentLength() == 0) {
+      return CompletableFuture.completedFuture(new byte[0]);
+    }
+    CompletableFuture<byte[]> result = new CompletableFuture<>();
+    publisher.subscribe(new Flow.Subscriber<>() {
+
+      private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+      @Override
+      public void onSubscribe(Flow.Subscription subscription) {
+        subscription.request(Long.MAX_VALUE);
+      }
+
+      @Override
+      public void onNext(ByteBuffer item) {
+        byte[] bytes = new byte[item.remaining()];
+        item.get(bytes);
+        output.write(bytes, 0, bytes.length);
+      }
+
+      @Override
+      public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+      }
+
+      @Override
+      public void onComplete() {
+        result.complete(output.toByteArray());
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Copies request with body which is already read, so copy can be sent without subscribing to
+   * original body publisher again.
+   *
+   * @param request {@link HttpRequest}
+   * @param body    Request body
+   * @return Copy of request
+   */
+  public static HttpRequest withBody(HttpRequest request, byte[] body) {
+    BodyPublisher publisher = request.bodyPublisher().isEmpty() ? BodyPublishers.noBody()
+        : BodyPublishers.ofByteArray(body);
+    HttpRequest.Builder builder = HttpRequest.newBuilder(request.uri())
+        .method(request.method(), publisher)
+        .expectContinue(request.expectContinue());
+    request.headers().map().forEach((name, values) -> values.forEach(
+        value -> builder.header(name, value)));
+    request.version().ifPresent(builder::version);
+    request.timeout().ifPresent(builder::timeout);
+    return builder.build();
+  }
+
+}
@@ -0,0 +1,27 @@
+package tech.hiddenproject.hic.transport;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends requests created by {@link tech.hiddenproject.hic.WebClient}. Default implementation is
+ * {@link HttpClientTransport}, {@link InMemoryTransport} and {@link RecordingTransport} allow to
+ * run clients without network.
+ *
+ * @author Danila Rassokhin
+ */
+public interface Transport {
+
+  /**
+   * Sends request without blocking.
+   *
+   * @param request     {@link HttpRequest}
+   * @param bodyHandler Handler which converts response body
+   * @param <T>         Body type
+   * @return Future with response, completed when response headers are received
+   */
+  <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request, BodyHandler<T> bodyHandler);
+
+}
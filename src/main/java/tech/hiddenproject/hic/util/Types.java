@@ -0,0 +1,77 @@
+package tech.hiddenproject.hic.util;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Utilities to build generic {@link Type}s.
+ *
+ * @author Danila Rassokhin
+ */
+public class Types {
+
+  /**
+   * Creates parameterized type, like {@code List<Book>}.
+   *
+   * @param rawType       Generic class
+   * @param typeArguments Type arguments
+   * @return {@link ParameterizedType}
+   */
+  public static ParameterizedType parameterized(Class<?> rawType, Type... typeArguments) {
+    return new ParameterizedTypeImpl(rawType, typeArguments.clone());
+  }
+
+  private static class ParameterizedTypeImpl implements ParameterizedType {
+
+    private final Class<?> rawType;
+
+    private final Type[] typeArguments;
+
+    private ParameterizedTypeImpl(Class<?> rawType, Type[] typeArguments) {
+      this.rawType = rawType;
+      this.typeArguments = typeArguments;
+    }
+
+    @Override
+    public Type[] getActualTypeArguments() {
+      return typeArguments.clone();
+    }
+
+    @Override
+    public Type getRawType() {
+      return rawType;
+    }
+
+    @Override
+    public Type getOwnerType() {
+      return rawType.getDeclaringClass();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof ParameterizedType)) {
+        return false;
+      }
+      ParameterizedType that = (ParameterizedType) o;
+      return rawType.equals(that.getRawType())
+          && Arrays.equals(typeArguments, that.getActualTypeArguments())
+          && Objects.equals(getOwnerType(), that.getOwnerType());
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(typeArguments) ^ rawType.hashCode()
+          ^ Objects.hashCode(getOwnerType());
+    }
+
+    @Override
+    public String toString() {
+      return rawType.getTypeName() + Arrays.stream(typeArguments)
+          .map(Type::getTypeName)
+          .collect(Collectors.joining(", ", "<", ">"));
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package tech.hiddenproject.hic;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import tech.hiddenproject.hic.annotation.Batched;
+import tech.hiddenproject.hic.annotation.GET;
+import tech.hiddenproject.hic.annotation.Path;
+import tech.hiddenproject.hic.annotation.Query;
+import tech.hiddenproject.hic.example.Book;
+
+/**
+ * Client with {@link Batched} method, implemented by {@link BatchedBookClientImpl} generated at
+ * test compile time.
+ *
+ * @author Danila Rassokhin
+ */
+public interface BatchedBookClient {
+
+  @Batched(value = "getBooks", key = "id", maxDelay = 200)
+  @GET("/book/{id}")
+  CompletableFuture<Book> getBook(@Path("id") Integer id);
+
+  @GET("/book")
+  List<Book> getBooks(@Query("ids") String ids);
+
+}
@@ -0,0 +1,109 @@
+package tech.hiddenproject.hic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.hiddenproject.hic.example.Book;
+import tech.hiddenproject.hic.example.BookClient;
+import tech.hiddenproject.hic.limit.ConcurrencyLimiter;
+import tech.hiddenproject.hic.transport.Transport;
+
+/**
+ * @author Danila Rassokhin
+ */
+class ConcurrencyLimitCancelTest {
+
+  private final HeldTransport transport = new HeldTransport();
+
+  private ConcurrencyLimiter limiter;
+
+  private BookClient client;
+
+  @BeforeEach
+  void setUp() {
+    limiter = ConcurrencyLimiter.aimd(1, 1, 1);
+    client = WebClient.of(BookClient.class)
+        .baseUrl("http://localhost")
+        .transport(transport)
+        .concurrencyLimiter(limiter)
+        .create();
+  }
+
+  @Test
+  void cancelledAsyncCallLeavesQueue() throws InterruptedException {
+    client.getBooksAsync(1);
+    CompletableFuture<List<Book>> waiting = client.getBooksAsync(2);
+    assertEquals(1, limiter.getQueued());
+
+    waiting.cancel(true);
+    assertEquals(0, limiter.getQueued());
+
+    transport.failAll();
+    TimeUnit.MILLISECONDS.sleep(200);
+    assertEquals(1, transport.requests.size());
+    assertEquals(0, limiter.getInFlight());
+  }
+
+  @Test
+  void interruptedSyncCallLeavesQueue() throws InterruptedException {
+    client.getBooksAsync(1);
+    Thread caller = new Thread(() -> {
+      try {
+        client.getBooks(2);
+      } catch (RuntimeException e) {
+        // Interrupted call fails
+      }
+    });
+    caller.start();
+    await(() -> limiter.getQueued() == 1);
+
+    caller.interrupt();
+    caller.join(5000);
+    await(() -> limiter.getQueued() == 0);
+
+    transport.failAll();
+    TimeUnit.MILLISECONDS.sleep(200);
+    assertEquals(1, transport.requests.size());
+    assertEquals(0, limiter.getInFlight());
+  }
+
+  private void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()) {
+      if (System.nanoTime() > deadline) {
+        throw new AssertionError("Condition is not met in 5 seconds");
+      }
+      TimeUnit.MILLISECONDS.sleep(10);
+    }
+  }
+
+  /**
+   * Keeps responses pending until {@link #failAll()}.
+   */
+  private static class HeldTransport implements Transport {
+
+    private final List<CompletableFuture<?>> requests = new CopyOnWriteArrayList<>();
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request,
+                                                       BodyHandler<T> bodyHandler) {
+      CompletableFuture<HttpResponse<T>> response = new CompletableFuture<>();
+      requests.add(response);
+      return response;
+    }
+
+    private void failAll() {
+      requests.forEach(response -> response.completeExceptionally(new IOException("Failed")));
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package tech.hiddenproject.hic;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import tech.hiddenproject.hic.transport.RecordedExchange;
+import tech.hiddenproject.hic.transport.Transport;
+
+/**
+ * Records keys of sent requests and passes them to delegate transport.
+ *
+ * @author Danila Rassokhin
+ */
+public class CountingTransport implements Transport {
+
+  private final Transport delegate;
+
+  private final List<String> requests = new CopyOnWriteArrayList<>();
+
+  public CountingTransport(Transport delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request,
+                                                     BodyHandler<T> bodyHandler) {
+    requests.add(RecordedExchange.key(request.method(), request.uri()));
+    return delegate.send(request, bodyHandler);
+  }
+
+  /**
+   * @return Keys of sent requests, see {@link RecordedExchange#key(String, java.net.URI)}
+   */
+  public List<String> getRequests() {
+    return requests;
+  }
+}
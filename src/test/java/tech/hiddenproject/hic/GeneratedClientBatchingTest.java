@@ -0,0 +1,38 @@
+package tech.hiddenproject.hic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+import tech.hiddenproject.hic.example.Book;
+import tech.hiddenproject.hic.transport.InMemoryTransport;
+
+/**
+ * @author Danila Rassokhin
+ */
+class GeneratedClientBatchingTest {
+
+  @Test
+  void generatedClientCoalescesBatchedCalls() {
+    CountingTransport transport = new CountingTransport(new InMemoryTransport().respond(
+        "GET", "/book?ids=1%2C2%2C3", 200,
+        "[{\"id\":1,\"title\":\"One\"},{\"id\":2,\"title\":\"Two\"},{\"id\":3,\"title\":\"Three\"}]"
+    ));
+    BatchedBookClient client = WebClient.of(BatchedBookClient.class)
+        .baseUrl("http://localhost")
+        .transport(transport)
+        .create();
+    assertInstanceOf(BatchedBookClientImpl.class, client);
+
+    CompletableFuture<Book> first = client.getBook(1);
+    CompletableFuture<Book> second = client.getBook(2);
+    CompletableFuture<Book> third = client.getBook(3);
+
+    assertEquals("One", first.join().getTitle());
+    assertEquals("Two", second.join().getTitle());
+    assertEquals("Three", third.join().getTitle());
+    assertEquals(List.of("GET /book?ids=1%2C2%2C3"), transport.getRequests());
+  }
+}
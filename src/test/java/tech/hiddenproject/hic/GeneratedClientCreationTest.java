@@ -0,0 +1,25 @@
+package tech.hiddenproject.hic;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import tech.hiddenproject.hic.exception.HttpClientException;
+
+/**
+ * @author Danila Rassokhin
+ */
+class GeneratedClientCreationTest {
+
+  @Test
+  void invalidGeneratedClientFailsWithHttpClientException() {
+    for (int i = 0; i < 2; i++) {
+      HttpClientException exception = assertThrows(
+          HttpClientException.class,
+          () -> WebClient.of(InvalidBookClient.class).baseUrl("http://localhost").create()
+      );
+      assertTrue(exception.getMessage().contains("Bulk method getBooks"),
+                 exception.getMessage());
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package tech.hiddenproject.hic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import tech.hiddenproject.hic.metrics.CallMetrics;
+import tech.hiddenproject.hic.metrics.Phase;
+import tech.hiddenproject.hic.transport.InMemoryTransport;
+
+/**
+ * @author Danila Rassokhin
+ */
+class GeneratedClientMetricsTest {
+
+  @Test
+  void generatedClientRecordsBindPhase() {
+    List<CallMetrics> calls = new CopyOnWriteArrayList<>();
+    BatchedBookClient client = WebClient.of(BatchedBookClient.class)
+        .baseUrl("http://localhost")
+        .transport(new InMemoryTransport().respond("GET", "/book?ids=1", 200, "[]"))
+        .metrics(calls::add)
+        .create();
+    assertInstanceOf(BatchedBookClientImpl.class, client);
+
+    client.getBooks("1");
+
+    assertEquals(1, calls.size());
+    assertTrue(calls.get(0).getPhase(Phase.BIND) > 0);
+  }
+}
@@ -0,0 +1,19 @@
+package tech.hiddenproject.hic;
+
+import tech.hiddenproject.hic.annotation.Batched;
+import tech.hiddenproject.hic.annotation.GET;
+import tech.hiddenproject.hic.annotation.Path;
+import tech.hiddenproject.hic.example.Book;
+
+/**
+ * Client with invalid {@link Batched} method: bulk method doesn't exist.
+ *
+ * @author Danila Rassokhin
+ */
+public interface InvalidBookClient {
+
+  @Batched("getBooks")
+  @GET("/book/{id}")
+  Book getBook(@Path("id") Integer id);
+
+}
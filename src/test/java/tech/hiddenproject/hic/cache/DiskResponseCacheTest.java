@@ -0,0 +1,94 @@
+package tech.hiddenproject.hic.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author Danila Rassokhin
+ */
+class DiskResponseCacheTest {
+
+  private static final long MAX_BYTES = 4 * 1024 * 1024;
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void revalidatedExpirationSurvivesRestart() {
+    long expiresAt = System.currentTimeMillis() + 60_000;
+    try (DiskResponseCache cache = new DiskResponseCache(directory, MAX_BYTES)) {
+      cache.put("GET /book", response(new byte[100], expiresAt));
+      cache.put("GET /book", response(new byte[100], expiresAt + 1000));
+      assertEquals(expiresAt + 1000, cache.get("GET /book").getExpiresAt());
+    }
+    try (DiskResponseCache cache = new DiskResponseCache(directory, MAX_BYTES)) {
+      assertEquals(expiresAt + 1000, cache.get("GET /book").getExpiresAt());
+      cache.compact();
+    }
+    try (DiskResponseCache cache = new DiskResponseCache(directory, MAX_BYTES, true)) {
+      assertEquals(expiresAt + 1000, cache.get("GET /book").getExpiresAt());
+    }
+  }
+
+  @Test
+  void compactionStaysWithinCap() {
+    long expiresAt = System.currentTimeMillis() + 60_000;
+    byte[] body = new byte[64 * 1024];
+    try (DiskResponseCache cache = new DiskResponseCache(directory, MAX_BYTES)) {
+      for (int i = 0; i < 500; i++) {
+        body[0] = (byte) i;
+        cache.put("GET /book/" + i % 10, response(body, expiresAt));
+        assertTrue(directorySize() <= MAX_BYTES, "Cache takes more than cap on disk");
+      }
+      cache.compact();
+      assertTrue(directorySize() <= MAX_BYTES, "Cache takes more than cap on disk");
+      for (int i = 490; i < 500; i++) {
+        CachedResponse response = cache.get("GET /book/" + i % 10);
+        assertNotNull(response);
+        assertEquals((byte) i, response.getBodyBytes()[0]);
+      }
+    }
+    try (DiskResponseCache cache = new DiskResponseCache(directory, MAX_BYTES)) {
+      assertArrayEquals(body, cache.get("GET /book/9").getBodyBytes());
+    }
+  }
+
+  @Test
+  void closedCacheIsEmpty() {
+    DiskResponseCache cache = new DiskResponseCache(directory, MAX_BYTES);
+    cache.put("GET /book", response(new byte[10], System.currentTimeMillis() + 60_000));
+    cache.close();
+    assertNull(cache.get("GET /book"));
+    cache.put("GET /book", response(new byte[10], System.currentTimeMillis() + 60_000));
+    cache.close();
+  }
+
+  private static CachedResponse response(byte[] body, long expiresAt) {
+    return new CachedResponse(200, body.clone(), "\"v1\"", null, expiresAt);
+  }
+
+  private long directorySize() {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.mapToLong(file -> {
+        try {
+          return Files.size(file);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }).sum();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}